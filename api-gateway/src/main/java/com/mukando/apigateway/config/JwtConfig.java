@@ -0,0 +1,26 @@
+package com.mukando.apigateway.config;
+
+import java.net.URI;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.mukando.commons.security.JwtVerifier;
+import com.mukando.commons.security.RemoteJwksKeySource;
+import com.mukando.commons.security.VerifiedTokenCache;
+
+@Configuration
+public class JwtConfig {
+
+    @Bean
+    public JwtVerifier jwtVerifier(@Value("${jwt.jwks-uri}") URI jwksUri) {
+        return new JwtVerifier(new RemoteJwksKeySource(jwksUri), Duration.ofMinutes(10));
+    }
+
+    @Bean
+    public VerifiedTokenCache verifiedTokenCache(@Value("${jwt.cache.max-size:10000}") long maxSize) {
+        return new VerifiedTokenCache(maxSize);
+    }
+}
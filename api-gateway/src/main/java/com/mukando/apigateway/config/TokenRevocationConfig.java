@@ -0,0 +1,51 @@
+package com.mukando.apigateway.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.mukando.commons.security.RevocationSync;
+import com.mukando.commons.security.Revocations;
+import com.mukando.commons.security.ServiceTokens;
+import com.mukando.commons.security.TokenDenyList;
+
+/**
+ * Revoked tokens are rejected at the edge too: the deny-list is polled from
+ * auth-service's internal revocations feed, authenticated with a service token.
+ * Polls run on the scheduler thread, so blocking on the response is fine there.
+ */
+@Configuration
+public class TokenRevocationConfig {
+
+    @Bean
+    public ServiceTokens serviceTokens(
+            @Value("${security.service-token.secret}") String secret,
+            @Value("${spring.application.name}") String serviceName,
+            @Value("${security.service-token.ttl:5m}") Duration ttl) {
+        return new ServiceTokens(secret, serviceName, ttl);
+    }
+
+    @Bean
+    public TokenDenyList tokenDenyList(@Value("${jwt.expiration}") long jwtExpiration) {
+        return new TokenDenyList(jwtExpiration);
+    }
+
+    @Bean
+    public RevocationSync revocationSync(
+            TokenDenyList tokenDenyList,
+            ServiceTokens serviceTokens,
+            WebClient.Builder webClientBuilder,
+            @Value("${jwt.revocation.uri}") String revocationsUri,
+            @Value("${jwt.revocation.sync-overlap:30000}") long syncOverlap) {
+        WebClient webClient = webClientBuilder.build();
+        return new RevocationSync(tokenDenyList, since -> webClient.get()
+            .uri(revocationsUri + "?since={since}", since)
+            .header(ServiceTokens.HEADER, serviceTokens.current())
+            .retrieve()
+            .bodyToMono(Revocations.class)
+            .block(Duration.ofSeconds(3)), syncOverlap);
+    }
+}
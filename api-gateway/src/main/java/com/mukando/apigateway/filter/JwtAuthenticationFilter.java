@@ -0,0 +1,97 @@
+package com.mukando.apigateway.filter;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.mukando.apigateway.security.EdgeTokenVerifier;
+import com.mukando.commons.security.JwtPrincipal;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Rejects requests carrying an invalid or expired bearer token before they are routed,
+ * and forwards the verified identity downstream as X-User-Id / X-User-Roles.
+ */
+@Slf4j
+@Component
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USER_ROLES_HEADER = "X-User-Roles";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final EdgeTokenVerifier tokenVerifier;
+    private final List<String> publicPaths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public JwtAuthenticationFilter(
+            EdgeTokenVerifier tokenVerifier,
+            @Value("${jwt.public-paths:}") List<String> publicPaths
+    ) {
+        this.tokenVerifier = tokenVerifier;
+        this.publicPaths = publicPaths;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX) || isPublic(request)) {
+            // Identity headers are only ever set by the gateway, never trusted from clients
+            return chain.filter(withIdentity(exchange, null));
+        }
+
+        return tokenVerifier.verify(authHeader.substring(BEARER_PREFIX.length()))
+            .map(Optional::of)
+            .onErrorResume(e -> {
+                log.debug("Rejected token for {}: {}", request.getPath(), e.getMessage());
+                return Mono.just(Optional.empty());
+            })
+            .flatMap(verified -> verified.isPresent()
+                ? chain.filter(withIdentity(exchange, verified.get()))
+                : unauthorized(exchange));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 100;
+    }
+
+    private boolean isPublic(ServerHttpRequest request) {
+        String path = request.getPath().value();
+        return publicPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    private ServerWebExchange withIdentity(ServerWebExchange exchange, JwtPrincipal principal) {
+        return exchange.mutate()
+            .request(request -> request.headers(headers -> {
+                headers.remove(USER_ID_HEADER);
+                headers.remove(USER_ROLES_HEADER);
+                if (principal != null) {
+                    headers.set(USER_ID_HEADER, String.valueOf(principal.getId()));
+                    headers.set(USER_ROLES_HEADER, principal.getRoles());
+                }
+            }))
+            .build();
+    }
+
+    private Mono<Void> unauthorized(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+        exchange.getResponse().getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+        return exchange.getResponse().setComplete();
+    }
+}
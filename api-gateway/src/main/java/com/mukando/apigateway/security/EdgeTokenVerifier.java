@@ -0,0 +1,58 @@
+package com.mukando.apigateway.security;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.mukando.commons.security.JwtPrincipal;
+import com.mukando.commons.security.JwtVerifier;
+import com.mukando.commons.security.Role;
+import com.mukando.commons.security.TokenDenyList;
+import com.mukando.commons.security.VerifiedTokenCache;
+
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Verifies access tokens at the edge with the same {@link JwtVerifier} the services
+ * use, against auth-service's JWKS. Already-verified tokens are cached, so the
+ * steady state needs neither a network call nor a signature check. Every request
+ * is still checked against the {@link TokenDenyList}, as a cached token may have
+ * been revoked since.
+ */
+@Component
+@RequiredArgsConstructor
+public class EdgeTokenVerifier {
+
+    private final JwtVerifier verifier;
+    private final VerifiedTokenCache verifiedTokens;
+    private final TokenDenyList denyList;
+
+    public Mono<JwtPrincipal> verify(String token) {
+        JwtPrincipal cached = verifiedTokens.get(token);
+        if (cached != null) {
+            return notRevoked(cached);
+        }
+        // A miss may reload the keyring over blocking HTTP, so it is kept off the event loop
+        return Mono.fromCallable(() -> JwtPrincipal.fromClaims(verifier.verify(token), Role.MASK))
+            .subscribeOn(Schedulers.boundedElastic())
+            .doOnNext(principal -> verifiedTokens.put(token, principal))
+            .flatMap(this::notRevoked);
+    }
+
+    private Mono<JwtPrincipal> notRevoked(JwtPrincipal principal) {
+        if (principal.isRevoked(denyList)) {
+            return Mono.error(new JwtException("Token has been revoked: " + principal.getTokenId()));
+        }
+        return Mono.just(principal);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadKeys() {
+        Mono.fromRunnable(verifier::refresh)
+            .subscribeOn(Schedulers.boundedElastic())
+            .subscribe();
+    }
+}
@@ -0,0 +1,22 @@
+package com.mukando.authservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.mukando.commons.security.TokenDenyList;
+import com.mukando.commons.security.VerifiedTokenCache;
+
+@Configuration
+public class JwtConfig {
+
+    @Bean
+    public VerifiedTokenCache verifiedTokenCache(@Value("${jwt.cache.max-size:10000}") long maxSize) {
+        return new VerifiedTokenCache(maxSize);
+    }
+
+    @Bean
+    public TokenDenyList tokenDenyList(@Value("${jwt.expiration}") long jwtExpiration) {
+        return new TokenDenyList(jwtExpiration);
+    }
+}
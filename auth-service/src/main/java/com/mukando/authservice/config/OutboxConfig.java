@@ -0,0 +1,16 @@
+package com.mukando.authservice.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.mukando.authservice.feign.UserServiceClient;
+import com.mukando.commons.outbox.OutboxTransport;
+
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    public OutboxTransport outboxTransport(UserServiceClient userServiceClient) {
+        return userServiceClient::deliverEvents;
+    }
+}
@@ -13,6 +13,8 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import com.mukando.authservice.security.JwtAuthFilter;
+import com.mukando.commons.security.ServiceAuthenticationFilter;
+import com.mukando.commons.security.ServiceTokens;
 
 import lombok.RequiredArgsConstructor;
 
@@ -23,23 +25,28 @@ import lombok.RequiredArgsConstructor;
 public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
-    
+    private final ServiceTokens serviceTokens;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
             .csrf(AbstractHttpConfigurer::disable)
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/auth/register", "/auth/login").permitAll()
+                .requestMatchers("/auth/register", "/auth/login", "/auth/refresh", "/auth/availability").permitAll()
+                .requestMatchers("/.well-known/jwks.json").permitAll()
                 
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                 
                 .requestMatchers("/swagger-ui.html").permitAll()
-                .requestMatchers("/auth/internal/**").permitAll()
+                // Service-to-service only; the gateway does not route /internal paths
+                .requestMatchers("/auth/internal/**").hasAuthority(ServiceTokens.AUTHORITY)
                 .requestMatchers("/actuator/**").permitAll()
                 
                 .anyRequest()
                 .authenticated())
+            // Not a bean on purpose: a Filter bean would also be registered with the servlet container
+            .addFilterBefore(new ServiceAuthenticationFilter(serviceTokens), UsernamePasswordAuthenticationFilter.class)
             .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
         
         return http.build();
@@ -1,5 +1,7 @@
 package com.mukando.authservice.controller;
 
+import java.util.List;
+
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -10,13 +12,22 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.mukando.authservice.dto.AvailabilityResponse;
 import com.mukando.authservice.dto.LoginRequest;
 import com.mukando.authservice.dto.LoginResponse;
+import com.mukando.authservice.dto.LogoutRequest;
+import com.mukando.authservice.dto.RefreshTokenRequest;
 import com.mukando.authservice.dto.RegisterRequest;
 import com.mukando.authservice.dto.RegisterResponse;
 import com.mukando.authservice.dto.UpdatePasswordRequest;
 import com.mukando.authservice.dto.UserDetailsResponse;
 import com.mukando.authservice.service.AuthService;
+import com.mukando.authservice.service.AvailabilityService;
+import com.mukando.commons.exception.BadRequestException;
+import com.mukando.commons.outbox.DeliveryReport;
+import com.mukando.commons.outbox.InboxProcessor;
+import com.mukando.commons.outbox.OutboxMessage;
+import com.mukando.commons.security.ServiceAuthenticationFilter;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -25,6 +36,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -35,6 +47,8 @@ import lombok.RequiredArgsConstructor;
 public class AuthController {
 
     private final AuthService authService;
+    private final AvailabilityService availabilityService;
+    private final InboxProcessor inboxProcessor;
 
     @Operation(
         summary = "Register new user",
@@ -55,21 +69,37 @@ public class AuthController {
 
     @Operation(
         summary = "Verify password (internal)",
-        description = "Internal endpoint to verify user credentials"
+        description = "Internal endpoint to verify user credentials. Failures are throttled per user and per "
+            + "client, taken from the caller's X-Client-IP header"
     )
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Verification result",
             content = @Content(mediaType = "application/json", 
             schema = @Schema(implementation = Boolean.class))),
+        @ApiResponse(responseCode = "429", description = "Too many failed attempts for this user or client"),
         @ApiResponse(responseCode = "500", description = "Internal error")
     })
     @PostMapping("/internal/verify-password")
     public ResponseEntity<Boolean> verifyPassword(
         @RequestParam String username, 
-        @RequestParam String password) {
-        return ResponseEntity.ok(authService.verifyPassword(username, password));
+        @RequestParam String password,
+        HttpServletRequest httpRequest) {
+        return ResponseEntity.ok(authService.verifyPassword(username, password, ServiceAuthenticationFilter.clientIp(httpRequest)));
     }
     
+    @Operation(
+        summary = "Receive sync events (internal)",
+        description = "Applies a batch of events from user-service's outbox. Already applied events are skipped; "
+            + "a failed event and the later events for its aggregate are returned for the sender to retry."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Events applied, except those reported as rejected")
+    })
+    @PostMapping("/internal/events")
+    public ResponseEntity<DeliveryReport> receiveEvents(@RequestBody List<OutboxMessage> messages) {
+        return ResponseEntity.ok(inboxProcessor.receive(messages));
+    }
+
     @Operation(
         summary = "Update password (internal)",
         description = "Internal endpoint to update user password"
@@ -95,11 +125,73 @@ public class AuthController {
             content = @Content(mediaType = "application/json", 
             schema = @Schema(implementation = LoginResponse.class))),
         @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+        @ApiResponse(responseCode = "429", description = "Too many failed attempts for this user or client"),
         @ApiResponse(responseCode = "500", description = "Internal error")
     })
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
-        return ResponseEntity.ok(authService.login(request));
+    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request,
+        HttpServletRequest httpRequest) {
+        return ResponseEntity.ok(authService.login(request, httpRequest.getRemoteAddr()));
+    }
+
+    @Operation(
+        summary = "Refresh access token",
+        description = "Exchanges a refresh token for a new access token and a new refresh token. "
+            + "The presented refresh token is consumed."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Tokens renewed",
+            content = @Content(mediaType = "application/json", 
+            schema = @Schema(implementation = LoginResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Invalid, used or expired refresh token"),
+        @ApiResponse(responseCode = "500", description = "Internal error")
+    })
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authService.refresh(request.refreshToken()));
+    }
+
+    @Operation(
+        summary = "Log out",
+        description = "Revokes the presented access token and, if given, its refresh token. "
+            + "With allSessions=true every token issued to the user so far is revoked."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Logged out"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "500", description = "Internal error")
+    })
+    @PostMapping("/logout")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Void> logout(
+        @RequestHeader("Authorization") String authHeader,
+        @RequestParam(defaultValue = "false") boolean allSessions,
+        @RequestBody(required = false) LogoutRequest request) {
+        authService.logout(authHeader, request != null ? request.refreshToken() : null, allSessions);
+        return ResponseEntity.ok().build();
+    }
+
+    @Operation(
+        summary = "Check username/email availability",
+        description = "Reports whether a username and/or email can still be registered. Intended for live "
+            + "checks on sign-up forms; most lookups are answered from memory without touching the database."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Availability of each value supplied",
+            content = @Content(mediaType = "application/json",
+            schema = @Schema(implementation = AvailabilityResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Neither username nor email supplied"),
+        @ApiResponse(responseCode = "429", description = "Too many checks from this client")
+    })
+    @GetMapping("/availability")
+    public ResponseEntity<AvailabilityResponse> checkAvailability(
+        @RequestParam(required = false) String username,
+        @RequestParam(required = false) String email,
+        HttpServletRequest httpRequest) {
+        if (username == null && email == null) {
+            throw new BadRequestException("Supply a username, an email or both");
+        }
+        return ResponseEntity.ok(availabilityService.check(username, email, httpRequest.getRemoteAddr()));
     }
 
     @Operation(
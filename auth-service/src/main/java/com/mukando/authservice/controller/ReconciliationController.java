@@ -0,0 +1,54 @@
+package com.mukando.authservice.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.mukando.authservice.service.UserSnapshotService;
+import com.mukando.commons.sync.RangeDigest;
+import com.mukando.commons.sync.UserSnapshot;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/auth/internal/reconcile")
+@PreAuthorize("hasAuthority('SERVICE')")
+@RequiredArgsConstructor
+@Tag(name = "Reconciliation", description = "Internal endpoints used by user-service to diff user tables")
+public class ReconciliationController {
+
+    private final UserSnapshotService userSnapshotService;
+
+    @Operation(
+        summary = "Digest of a username range (internal)",
+        description = "Returns the row count and SHA-256 digest of users with after < username <= upTo. "
+            + "Without upTo the range is open-ended."
+    )
+    @ApiResponse(responseCode = "200", description = "Digest computed")
+    @GetMapping("/digest")
+    public ResponseEntity<RangeDigest> digest(
+        @RequestParam String after,
+        @RequestParam(required = false) String upTo) {
+        return ResponseEntity.ok(userSnapshotService.digest(after, upTo));
+    }
+
+    @Operation(
+        summary = "Users in a username range (internal)",
+        description = "Returns the compared fields of users with after < username <= upTo, ordered by username"
+    )
+    @ApiResponse(responseCode = "200", description = "Users returned")
+    @GetMapping("/rows")
+    public ResponseEntity<List<UserSnapshot>> rows(
+        @RequestParam String after,
+        @RequestParam(required = false) String upTo) {
+        return ResponseEntity.ok(userSnapshotService.snapshots(after, upTo));
+    }
+}
@@ -0,0 +1,37 @@
+package com.mukando.authservice.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.mukando.authservice.service.TokenRevocationService;
+import com.mukando.commons.security.Revocations;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/auth/internal/revocations")
+@PreAuthorize("hasAuthority('SERVICE')")
+@RequiredArgsConstructor
+@Tag(name = "Revocations", description = "Internal feed of revoked access tokens for the other token verifiers")
+public class RevocationController {
+
+    private final TokenRevocationService tokenRevocationService;
+
+    @Operation(
+        summary = "Revocations since a time (internal)",
+        description = "Returns revoked token ids and per-user watermarks stored after since (epoch milliseconds) "
+            + "that still cover live tokens. since=0 returns all of them."
+    )
+    @ApiResponse(responseCode = "200", description = "Revocations returned")
+    @GetMapping
+    public ResponseEntity<Revocations> revocations(@RequestParam(defaultValue = "0") long since) {
+        return ResponseEntity.ok(tokenRevocationService.revocationsSince(since));
+    }
+}
@@ -0,0 +1,9 @@
+package com.mukando.authservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AvailabilityResponse(
+    Boolean usernameAvailable,
+    Boolean emailAvailable
+) {}
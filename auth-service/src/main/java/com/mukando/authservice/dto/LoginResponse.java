@@ -2,7 +2,7 @@ package com.mukando.authservice.dto;
 
 import java.util.Set;
 
-import com.mukando.authservice.model.Role;
+import com.mukando.commons.security.Role;
 
 public record LoginResponse(
     String username,
@@ -11,5 +11,6 @@ public record LoginResponse(
     Set<Role> roles,
     String firstName,
     String phoneNumber,
-    String token
+    String token,
+    String refreshToken
 ) {}
@@ -0,0 +1,3 @@
+package com.mukando.authservice.dto;
+
+public record LogoutRequest(String refreshToken) {}
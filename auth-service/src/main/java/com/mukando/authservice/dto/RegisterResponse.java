@@ -2,7 +2,7 @@ package com.mukando.authservice.dto;
 
 import java.util.Set;
 
-import com.mukando.authservice.model.Role;
+import com.mukando.commons.security.Role;
 
 public record RegisterResponse(
     String username,
@@ -1,14 +1,17 @@
 // UserServiceClient.java
 package com.mukando.authservice.feign;
 
+import java.util.List;
+
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
-import com.mukando.authservice.dto.UserCreationRequest;
+import com.mukando.commons.outbox.DeliveryReport;
+import com.mukando.commons.outbox.OutboxMessage;
 
 @FeignClient(name = "user-service", path = "/api/users/internal")
 public interface UserServiceClient {
-    @PostMapping
-    void createUser(@RequestBody UserCreationRequest request);
-}
\ No newline at end of file
+    @PostMapping("/events")
+    DeliveryReport deliverEvents(@RequestBody List<OutboxMessage> messages);
+}
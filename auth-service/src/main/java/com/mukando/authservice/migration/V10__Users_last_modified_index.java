@@ -0,0 +1,19 @@
+package com.mukando.authservice.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import com.mukando.commons.jpa.JdbcSchema;
+
+/**
+ * Backs the availability filter refresh, which every instance polls for users
+ * written since its previous poll.
+ */
+public class V10__Users_last_modified_index extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        JdbcSchema schema = new JdbcSchema(context.getConnection());
+        schema.createIndexIfMissing("mukando_users", "idx_users_last_modified_date", "last_modified_date");
+    }
+}
@@ -0,0 +1,11 @@
+package com.mukando.authservice.migration;
+
+import com.mukando.commons.jpa.RoleMaskMigration;
+import com.mukando.commons.security.Role;
+
+public class V2__Roles_bitmask extends RoleMaskMigration {
+
+    public V2__Roles_bitmask() {
+        super(Role.class);
+    }
+}
@@ -0,0 +1,21 @@
+package com.mukando.authservice.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import com.mukando.commons.jpa.JdbcSchema;
+
+/**
+ * Replaces the hash-named unique keys ddl-auto created on usernames and emails
+ * with named ones, so GlobalExceptionHandler can tell from a violation which
+ * value was taken.
+ */
+public class V6__Named_unique_constraints extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        JdbcSchema schema = new JdbcSchema(context.getConnection());
+        schema.renameUniqueConstraint("mukando_users", "username", "uk_users_username");
+        schema.renameUniqueConstraint("mukando_users", "email", "uk_users_email");
+    }
+}
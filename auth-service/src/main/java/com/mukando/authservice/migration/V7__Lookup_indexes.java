@@ -0,0 +1,32 @@
+package com.mukando.authservice.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import com.mukando.commons.jpa.JdbcSchema;
+
+/**
+ * Indexes for repository lookups that were table scans, including those of the
+ * tables V3 to V5 create: added here, by name, because those tables may already
+ * exist from ddl-auto. MySQL has no partial indexes, so the soft-delete flag
+ * leads the outbox index instead.
+ */
+public class V7__Lookup_indexes extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        JdbcSchema schema = new JdbcSchema(context.getConnection());
+        // RefreshTokenRepository.deleteByUserId / deleteExpired
+        schema.createIndexIfMissing("refresh_tokens", "idx_refresh_tokens_user_id", "user_id");
+        schema.createIndexIfMissing("refresh_tokens", "idx_refresh_tokens_expiry_date", "expiry_date");
+        // RevokedTokenRepository.deleteExpired
+        schema.createIndexIfMissing("revoked_tokens", "idx_revoked_tokens_expiry_date", "expiry_date");
+        // TokenWatermarkRepository.deleteExpired
+        schema.createIndexIfMissing("token_watermarks", "idx_token_watermarks_revoked_before", "revoked_before");
+        // OutboxEventRepository.findClaimableHeads: deleted = false and next_attempt_at <= now order by id
+        schema.createIndexIfMissing("outbox_events", "idx_outbox_events_pending", "deleted, id");
+        schema.createIndexIfMissing("outbox_events", "idx_outbox_events_next_attempt_at", "next_attempt_at");
+        // ProcessedEventRepository.deleteProcessedBefore
+        schema.createIndexIfMissing("processed_events", "idx_processed_events_created_date", "created_date");
+    }
+}
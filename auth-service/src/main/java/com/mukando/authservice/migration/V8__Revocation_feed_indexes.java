@@ -0,0 +1,20 @@
+package com.mukando.authservice.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import com.mukando.commons.jpa.JdbcSchema;
+
+/**
+ * Backs the revocations feed, which every verifier polls for rows changed since
+ * its previous poll.
+ */
+public class V8__Revocation_feed_indexes extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        JdbcSchema schema = new JdbcSchema(context.getConnection());
+        schema.createIndexIfMissing("revoked_tokens", "idx_revoked_tokens_last_modified_date", "last_modified_date");
+        schema.createIndexIfMissing("token_watermarks", "idx_token_watermarks_last_modified_date", "last_modified_date");
+    }
+}
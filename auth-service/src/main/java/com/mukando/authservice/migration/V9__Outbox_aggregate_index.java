@@ -0,0 +1,19 @@
+package com.mukando.authservice.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import com.mukando.commons.jpa.JdbcSchema;
+
+/**
+ * Backs the outbox relay's claim, which only takes the oldest pending event of
+ * each aggregate and then loads the aggregate's later events.
+ */
+public class V9__Outbox_aggregate_index extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        JdbcSchema schema = new JdbcSchema(context.getConnection());
+        schema.createIndexIfMissing("outbox_events", "idx_outbox_events_aggregate", "aggregate_id, deleted, id");
+    }
+}
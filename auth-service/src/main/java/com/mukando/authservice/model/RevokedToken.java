@@ -0,0 +1,43 @@
+package com.mukando.authservice.model;
+
+import java.time.LocalDateTime;
+
+import com.mukando.commons.jpa.BaseEntity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+    @Index(name = "idx_revoked_tokens_expiry_date", columnList = "expiry_date"),
+    // Revocations feed polled by the other verifiers
+    @Index(name = "idx_revoked_tokens_last_modified_date", columnList = "last_modified_date")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_id", nullable = false, unique = true, length = 36)
+    private String tokenId;
+
+    // Expiry of the revoked access token; the row is useless after it
+    @Column(name = "expiry_date", nullable = false)
+    private LocalDateTime expiryDate;
+}
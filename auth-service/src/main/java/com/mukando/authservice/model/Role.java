@@ -1,12 +0,0 @@
-package com.mukando.authservice.model;
-
-public enum Role {
-    USER,
-    ADMIN,
-    PRESIDENT,
-    MODERATOR,
-    SUPERADMIN,
-    TREASURER,
-    MEMBER,
-    GUEST;
-}
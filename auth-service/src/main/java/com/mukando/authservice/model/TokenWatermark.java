@@ -0,0 +1,38 @@
+package com.mukando.authservice.model;
+
+import java.time.LocalDateTime;
+
+import com.mukando.commons.jpa.BaseEntity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "token_watermarks", indexes = {
+    @Index(name = "idx_token_watermarks_revoked_before", columnList = "revoked_before"),
+    // Revocations feed polled by the other verifiers
+    @Index(name = "idx_token_watermarks_last_modified_date", columnList = "last_modified_date")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenWatermark extends BaseEntity {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // Access tokens of this user issued before this instant are rejected
+    @Column(name = "revoked_before", nullable = false)
+    private LocalDateTime revokedBefore;
+}
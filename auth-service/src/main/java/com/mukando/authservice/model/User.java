@@ -1,28 +1,23 @@
 package com.mukando.authservice.model;
 
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import com.mukando.commons.jpa.BaseEntity;
+import com.mukando.commons.security.Role;
 
-import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
-import jakarta.persistence.EnumType;
-import jakarta.persistence.Enumerated;
-import jakarta.persistence.FetchType;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -32,8 +27,16 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @EqualsAndHashCode(callSuper = true)
-@Table(name = "mukando_users")
+@Table(name = "mukando_users", uniqueConstraints = {
+    // Named so GlobalExceptionHandler can tell which value was taken
+    @UniqueConstraint(name = "uk_users_username", columnNames = "username"),
+    @UniqueConstraint(name = "uk_users_email", columnNames = "email")
+}, indexes = {
+    // UserRepository.findUsernamesAndEmailsWrittenAfter
+    @Index(name = "idx_users_last_modified_date", columnList = "last_modified_date")
+})
 @Entity
+@EntityListeners(UserAvailabilityListener.class)
 @Data
 @Builder
 @Getter
@@ -46,13 +49,17 @@ public class User extends BaseEntity implements UserDetails {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String username;
 
     @Column(nullable = false)
     private String password;
 
-    @Column(nullable = false, unique = true)
+    // user-service's count of password changes, copied with each one; see UserSnapshot
+    @Column(name = "password_version", nullable = false)
+    private int passwordVersion;
+
+    @Column(nullable = false)
     private String email;
 
     private String phoneNumber;
@@ -62,18 +69,23 @@ public class User extends BaseEntity implements UserDetails {
     private String city;
     private String country;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
-    @Enumerated(EnumType.STRING)
-    private Set<Role> roles = new HashSet<>();
+    // Bit n set = Role with ordinal n; see Role.MASK
+    @Column(name = "roles_mask", nullable = false)
+    private int rolesMask;
 
     private boolean enabled;
 
+    public Set<Role> getRoles() {
+        return Role.MASK.decode(rolesMask);
+    }
+
+    public void setRoles(Set<Role> roles) {
+        this.rolesMask = Role.MASK.encode(roles);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return roles.stream()
-            .map(role -> new SimpleGrantedAuthority(role.name()))
-            .collect(Collectors.toList());
+        return Role.MASK.authorities(rolesMask);
     }
 
     @Override
@@ -90,4 +102,11 @@ public class User extends BaseEntity implements UserDetails {
     public boolean isCredentialsNonExpired() {
         return true;
     }
-}
\ No newline at end of file
+
+    public static class UserBuilder {
+        public UserBuilder roles(Set<Role> roles) {
+            this.rolesMask = Role.MASK.encode(roles);
+            return this;
+        }
+    }
+}
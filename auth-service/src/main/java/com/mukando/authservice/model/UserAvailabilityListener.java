@@ -0,0 +1,40 @@
+package com.mukando.authservice.model;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.mukando.authservice.service.AvailabilityService;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Adds usernames and emails to the availability filters once the transaction that
+ * wrote them commits, covering local registration, synced users and renames alike.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserAvailabilityListener {
+
+    private final ObjectProvider<AvailabilityService> availabilityService;
+
+    @PostPersist
+    @PostUpdate
+    public void written(User user) {
+        String username = user.getUsername();
+        String email = user.getEmail();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            availabilityService.ifAvailable(service -> service.record(username, email));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                availabilityService.ifAvailable(service -> service.record(username, email));
+            }
+        });
+    }
+}
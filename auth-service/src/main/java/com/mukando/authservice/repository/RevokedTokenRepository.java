@@ -0,0 +1,23 @@
+package com.mukando.authservice.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.mukando.authservice.model.RevokedToken;
+import com.mukando.commons.jpa.BaseDao;
+
+@Repository
+public interface RevokedTokenRepository extends BaseDao<RevokedToken, Long> {
+    boolean existsByTokenId(String tokenId);
+
+    List<RevokedToken> findByLastModifiedDateAfterAndExpiryDateAfter(LocalDateTime since, LocalDateTime cutoff);
+
+    @Modifying
+    @Query("delete from RevokedToken t where t.expiryDate < :cutoff")
+    int deleteExpired(@Param("cutoff") LocalDateTime cutoff);
+}
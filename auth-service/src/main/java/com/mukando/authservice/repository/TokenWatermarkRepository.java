@@ -0,0 +1,21 @@
+package com.mukando.authservice.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.mukando.authservice.model.TokenWatermark;
+import com.mukando.commons.jpa.BaseDao;
+
+@Repository
+public interface TokenWatermarkRepository extends BaseDao<TokenWatermark, Long> {
+    List<TokenWatermark> findByLastModifiedDateAfterAndRevokedBeforeAfter(LocalDateTime since, LocalDateTime cutoff);
+
+    @Modifying
+    @Query("delete from TokenWatermark w where w.revokedBefore < :cutoff")
+    int deleteExpired(@Param("cutoff") LocalDateTime cutoff);
+}
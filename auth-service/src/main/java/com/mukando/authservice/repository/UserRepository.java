@@ -1,7 +1,13 @@
 package com.mukando.authservice.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.mukando.authservice.model.User;
@@ -10,7 +16,25 @@ import com.mukando.commons.jpa.BaseDao;
 @Repository
 public interface UserRepository extends BaseDao<User, Long> {
     Optional<User> findByUsername(String username);
+    List<User> findAllByUsernameIn(Collection<String> usernames);
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    @Query("select u.username from User u where u.username > :after order by u.username")
+    List<String> findUsernamesAfter(@Param("after") String after, Pageable pageable);
+
+    // Ordered by username, for users in the key range (after, upTo]
+    @Query("select u.username, u.email, u.firstName, u.lastName, u.phoneNumber, u.address, u.city, u.country, "
+        + "u.enabled, u.rolesMask, u.passwordVersion from User u "
+        + "where u.username > :after and (:upTo is null or u.username <= :upTo) order by u.username")
+    List<Object[]> findSnapshotRows(@Param("after") String after, @Param("upTo") String upTo);
+
+    // Keyset pages in id order, for building the availability filters
+    @Query("select u.id, u.username, u.email from User u where u.id > :afterId order by u.id")
+    List<Object[]> findUsernamesAndEmailsAfterId(@Param("afterId") long afterId, Pageable pageable);
+
+    // Users registered, synced or renamed since the given time, for refreshing the availability filters
+    @Query("select u.username, u.email from User u where u.lastModifiedDate > :after")
+    List<Object[]> findUsernamesAndEmailsWrittenAfter(@Param("after") LocalDateTime after);
 }
@@ -0,0 +1,8 @@
+package com.mukando.authservice.security;
+
+public enum AuthenticationMode {
+    // Reload the user from the database on every request
+    DATABASE,
+    // Trust the verified userId/roles claims and skip the user lookup
+    CLAIMS
+}
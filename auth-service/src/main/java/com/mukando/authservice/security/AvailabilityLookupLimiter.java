@@ -0,0 +1,71 @@
+package com.mukando.authservice.security;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mukando.commons.exception.TooManyRequestsException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caps availability lookups per client IP so the endpoint cannot be used to
+ * enumerate registered usernames and emails. A client over the limit is locked
+ * out for one window; like {@link LoginAttemptLimiter}, counters are lock-free
+ * and live in a size-bounded cache that forgets idle clients.
+ */
+@Slf4j
+@Component
+public class AvailabilityLookupLimiter {
+
+    private static final String THROTTLED_MESSAGE = "Too many availability checks, please retry later";
+
+    private final long bucketMillis;
+    private final long windowMillis;
+    private final int maxLookups;
+    private final Cache<String, SlidingWindow> windows;
+    private final Counter throttled;
+
+    public AvailabilityLookupLimiter(
+            @Value("${auth.availability.throttle.window:1m}") Duration window,
+            @Value("${auth.availability.throttle.max-lookups-per-ip:60}") int maxLookups,
+            @Value("${auth.availability.throttle.max-entries:100000}") long maxEntries,
+            MeterRegistry meterRegistry) {
+        this.windowMillis = window.toMillis();
+        this.bucketMillis = Math.max(1, windowMillis / SlidingWindow.BUCKETS);
+        this.maxLookups = maxLookups;
+        this.windows = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterAccess(window.multipliedBy(2))
+            .build();
+        this.throttled = Counter.builder("auth.availability.throttled").register(meterRegistry);
+        Gauge.builder("auth.availability.throttle.tracked", windows, Cache::estimatedSize).register(meterRegistry);
+    }
+
+    public void checkAllowed(String clientIp) {
+        if (clientIp == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        SlidingWindow window = windows.get(clientIp, k -> new SlidingWindow(bucketMillis));
+        long retryAfterMillis = window.lockedForMillis(now);
+        if (retryAfterMillis <= 0 && window.increment(now) > maxLookups) {
+            if (window.lock(now, now + windowMillis)) {
+                log.warn("Availability checks locked for ip {} after {} lookups", clientIp, maxLookups);
+            }
+            retryAfterMillis = window.lockedForMillis(now);
+        }
+        if (retryAfterMillis > 0) {
+            throttled.increment();
+            throw new TooManyRequestsException(THROTTLED_MESSAGE,
+                Math.max(1, TimeUnit.MILLISECONDS.toSeconds(retryAfterMillis + 999)));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.mukando.authservice.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.jsonwebtoken.io.SerializationException;
+import io.jsonwebtoken.io.Serializer;
+
+/**
+ * Writes JWT headers and claims straight into a presized buffer. Token maps only
+ * hold strings, numbers and booleans, so the generic Jackson path is kept as a
+ * fallback for any other value rather than used for every token.
+ */
+class CompactJsonSerializer implements Serializer<Map<String, ?>> {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final ObjectMapper objectMapper;
+
+    CompactJsonSerializer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public byte[] serialize(Map<String, ?> map) {
+        StringBuilder json = new StringBuilder(INITIAL_CAPACITY).append('{');
+        boolean first = true;
+        for (Map.Entry<String, ?> entry : map.entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            writeString(json, entry.getKey());
+            json.append(':');
+            writeValue(json, entry.getValue());
+        }
+        return json.append('}').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void writeValue(StringBuilder json, Object value) {
+        if (value == null) {
+            json.append("null");
+        } else if (value instanceof String string) {
+            writeString(json, string);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Boolean) {
+            json.append(value);
+        } else {
+            try {
+                json.append(objectMapper.writeValueAsString(value));
+            } catch (JsonProcessingException e) {
+                throw new SerializationException("Unable to serialize token value", e);
+            }
+        }
+    }
+
+    private static void writeString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+}
@@ -2,30 +2,54 @@
 package com.mukando.authservice.security;
 
 import java.io.IOException;
+import java.util.Collection;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.mukando.commons.security.JwtPrincipal;
+import com.mukando.commons.security.Role;
+import com.mukando.commons.security.TokenClaims;
+import com.mukando.commons.security.TokenDenyList;
+import com.mukando.commons.security.VerifiedTokenCache;
+
 import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final VerifiedTokenCache tokenCache;
+    private final TokenDenyList denyList;
+    private final AuthenticationMode authMode;
+
+    public JwtAuthFilter(
+            JwtUtil jwtUtil,
+            CustomUserDetailsService userDetailsService,
+            VerifiedTokenCache tokenCache,
+            TokenDenyList denyList,
+            @Value("${jwt.auth-mode:database}") AuthenticationMode authMode
+    ) {
+        this.jwtUtil = jwtUtil;
+        this.userDetailsService = userDetailsService;
+        this.tokenCache = tokenCache;
+        this.denyList = denyList;
+        this.authMode = authMode;
+    }
 
     @Override
     protected void doFilterInternal(
@@ -35,35 +59,72 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String username = null;
-        Claims claims = null;
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String token = authHeader.substring(7);
+            if (authMode == AuthenticationMode.CLAIMS) {
+                authenticateFromClaims(token, request);
+            } else {
+                authenticateFromDatabase(token, request);
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private void authenticateFromClaims(String token, HttpServletRequest request) {
+        JwtPrincipal principal = tokenCache.get(token);
+        if (principal == null) {
             try {
-                claims = jwtUtil.parseToken(token);
-                username = claims.getSubject();
-                
-                request.setAttribute("X-User-Id", String.valueOf(claims.get("userId")));
-                request.setAttribute("X-User-Roles", claims.get("roles"));
+                principal = JwtPrincipal.fromClaims(jwtUtil.parseToken(token), Role.MASK);
             } catch (Exception ex) {
                 log.warn("JWT extraction failed", ex);
+                return;
             }
+            tokenCache.put(token, principal);
+        }
+        if (principal.isRevoked(denyList)) {
+            log.debug("Rejected revoked token {}", principal.getTokenId());
+            return;
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null && claims != null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        request.setAttribute("X-User-Id", String.valueOf(principal.getId()));
+        request.setAttribute("X-User-Roles", principal.getRoles());
+        setAuthentication(principal, principal.getAuthorities(), request);
+    }
 
-            if (jwtUtil.validateToken(token, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities()
-                );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+    private void authenticateFromDatabase(String token, HttpServletRequest request) {
+        Claims claims;
+        try {
+            claims = jwtUtil.parseToken(token);
+        } catch (Exception ex) {
+            log.warn("JWT extraction failed", ex);
+            return;
+        }
+        Long userId = TokenClaims.userId(claims);
+        if (denyList.isRevoked(claims.getId(), userId, TokenClaims.issuedAtMillis(claims))) {
+            log.debug("Rejected revoked token {}", claims.getId());
+            return;
         }
 
-        filterChain.doFilter(request, response);
+        request.setAttribute("X-User-Id", String.valueOf(userId));
+        request.setAttribute("X-User-Roles", Role.MASK.joined(TokenClaims.rolesMask(claims, Role.MASK)));
+
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        if (jwtUtil.isTokenValid(claims, userDetails)) {
+            setAuthentication(userDetails, userDetails.getAuthorities(), request);
+        }
+    }
+
+    private void setAuthentication(
+            Object principal,
+            Collection<? extends GrantedAuthority> authorities,
+            HttpServletRequest request
+    ) {
+        UsernamePasswordAuthenticationToken authToken =
+            new UsernamePasswordAuthenticationToken(principal, null, authorities);
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
     }
 }
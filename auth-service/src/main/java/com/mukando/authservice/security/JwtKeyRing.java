@@ -0,0 +1,121 @@
+package com.mukando.authservice.security;
+
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+
+import com.mukando.commons.security.Jwks;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * RSA keys used to sign access tokens. The active key signs; every configured
+ * key is published in the JWKS so tokens signed before a rotation keep verifying.
+ */
+@Slf4j
+@Getter
+@Component
+public class JwtKeyRing {
+
+    private final String activeKid;
+    private final PrivateKey signingKey;
+    private final Map<String, PublicKey> verificationKeys;
+    private final Map<String, Object> jwkSet;
+
+    public JwtKeyRing(JwtSigningProperties properties) {
+        Map<String, PublicKey> publicKeys = new LinkedHashMap<>();
+        PrivateKey activeKey = null;
+
+        for (JwtSigningProperties.SigningKey key : properties.getKeys()) {
+            PrivateKey privateKey = hasText(key.getPrivateKey()) ? parsePrivateKey(key.getPrivateKey()) : null;
+            PublicKey publicKey = hasText(key.getPublicKey())
+                ? parsePublicKey(key.getPublicKey())
+                : derivePublicKey(key.getKid(), privateKey);
+            publicKeys.put(key.getKid(), publicKey);
+            if (key.getKid().equals(properties.getActiveKid())) {
+                activeKey = privateKey;
+            }
+        }
+
+        if (publicKeys.isEmpty()) {
+            log.warn("No jwt.signing.keys configured; generating an ephemeral RSA key. "
+                + "Tokens will not survive a restart and cannot be shared between instances.");
+            KeyPair keyPair = generateKeyPair();
+            String kid = UUID.randomUUID().toString();
+            publicKeys.put(kid, keyPair.getPublic());
+            this.activeKid = kid;
+            this.signingKey = keyPair.getPrivate();
+        } else {
+            if (activeKey == null) {
+                throw new IllegalStateException(
+                    "jwt.signing.active-kid must name a configured key with a private key");
+            }
+            this.activeKid = properties.getActiveKid();
+            this.signingKey = activeKey;
+        }
+
+        this.verificationKeys = Map.copyOf(publicKeys);
+        this.jwkSet = Jwks.toJwkSet(publicKeys);
+    }
+
+    private static PrivateKey parsePrivateKey(String encoded) {
+        try {
+            return KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(decode(encoded)));
+        } catch (Exception e) {
+            throw new IllegalStateException("Invalid RSA private key in jwt.signing.keys", e);
+        }
+    }
+
+    private static PublicKey parsePublicKey(String encoded) {
+        try {
+            return KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(decode(encoded)));
+        } catch (Exception e) {
+            throw new IllegalStateException("Invalid RSA public key in jwt.signing.keys", e);
+        }
+    }
+
+    private static PublicKey derivePublicKey(String kid, PrivateKey privateKey) {
+        if (!(privateKey instanceof RSAPrivateCrtKey crtKey)) {
+            throw new IllegalStateException("Key '" + kid + "' needs a public-key or an RSA private-key");
+        }
+        try {
+            return KeyFactory.getInstance("RSA")
+                .generatePublic(new RSAPublicKeySpec(crtKey.getModulus(), crtKey.getPublicExponent()));
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot derive public key for '" + kid + "'", e);
+        }
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("RSA is not available", e);
+        }
+    }
+
+    private static byte[] decode(String pem) {
+        String base64 = pem.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -0,0 +1,28 @@
+package com.mukando.authservice.security;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "jwt.signing")
+public class JwtSigningProperties {
+
+    private String activeKid;
+
+    private List<SigningKey> keys = new ArrayList<>();
+
+    @Data
+    public static class SigningKey {
+        private String kid;
+        // PKCS#8, PEM or bare base64; leave empty for keys that are only kept for verification
+        private String privateKey;
+        // X.509 SubjectPublicKeyInfo, PEM or bare base64; derived from the private key when empty
+        private String publicKey;
+    }
+}
@@ -2,18 +2,21 @@
 package com.mukando.authservice.security;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
-
-import javax.crypto.SecretKey;
+import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mukando.authservice.model.User;
+import com.mukando.commons.security.JwtVerifier;
+import com.mukando.commons.security.Role;
+import com.mukando.commons.security.TokenClaims;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
@@ -25,25 +28,45 @@ import lombok.extern.slf4j.Slf4j;
 @Component
 public class JwtUtil {
 
-    private static final SignatureAlgorithm SIGNATURE_ALGORITHM = SignatureAlgorithm.HS256;
-    
-    @Value("${jwt.secret}")
-    private String secret;
-    
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    private static final SignatureAlgorithm SIGNATURE_ALGORITHM = SignatureAlgorithm.RS256;
+
+    private final JwtKeyRing keyRing;
+    private final JwtVerifier verifier;
+    private final long jwtExpiration;
+    private final CompactJsonSerializer serializer;
+
+    public JwtUtil(
+            JwtKeyRing keyRing,
+            ObjectMapper objectMapper,
+            @Value("${jwt.secret}") String secret,
+            @Value("${jwt.expiration}") long jwtExpiration
+    ) {
+        this.keyRing = keyRing;
+        this.jwtExpiration = jwtExpiration;
+        this.serializer = new CompactJsonSerializer(objectMapper);
+        // The HS256 secret is only kept to accept tokens issued before RS256 signing (no kid header)
+        this.verifier = new JwtVerifier(
+            keyRing::getVerificationKeys,
+            Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)),
+            Duration.ofMinutes(5)
+        );
+    }
 
     public String generateToken(User user) {
         return generateToken(buildUserClaims(user), user.getUsername());
     }
 
     public String generateToken(Map<String, Object> claims, String subject) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
+            .serializeToJsonWith(serializer)
+            .setHeaderParam("kid", keyRing.getActiveKid())
             .setClaims(claims)
             .setSubject(subject)
-            .setIssuedAt(new Date())
-            .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-            .signWith(getSigningKey(), SIGNATURE_ALGORITHM)
+            .setId(UUID.randomUUID().toString())
+            .claim(TokenClaims.ISSUED_AT_MILLIS, now)
+            .setExpiration(new Date(now + jwtExpiration))
+            .signWith(keyRing.getSigningKey(), SIGNATURE_ALGORITHM)
             .compact();
     }
 
@@ -52,46 +75,43 @@ public class JwtUtil {
     }
     
     public Long extractUserId(String token) {
-        return parseToken(token).get("userId", Long.class);
+        return TokenClaims.userId(parseToken(token));
     }
 
     public String extractRoles(String token) {
-        return parseToken(token).get("roles", String.class);
+        return Role.MASK.joined(TokenClaims.rolesMask(parseToken(token), Role.MASK));
     }
 
     public boolean validateToken(String token, UserDetails userDetails) {
         try {
-            final Claims claims = parseToken(token);
-            final String username = claims.getSubject();
-            return username.equals(userDetails.getUsername()) && !isTokenExpired(claims);
+            return isTokenValid(parseToken(token), userDetails);
         } catch (Exception e) {
             log.warn("Token validation failed", e);
             return false;
         }
     }
 
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        return username != null
+            && username.equals(userDetails.getUsername())
+            && userDetails.isEnabled()
+            && !isTokenExpired(claims);
+    }
+
     public Claims parseToken(String token) {
-        return Jwts.parserBuilder()
-            .setSigningKey(getSigningKey())
-            .build()
-            .parseClaimsJws(token)
-            .getBody();
+        return verifier.verify(token);
     }
 
     private Map<String, Object> buildUserClaims(User user) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("userId", user.getId());
-        claims.put("roles", user.getRoles().stream()
-            .map(Enum::name)
-            .collect(Collectors.joining(",")));
+        // Insertion order is serialization order; the format marker leads so parsers can branch early
+        Map<String, Object> claims = new LinkedHashMap<>(8);
+        claims.put(TokenClaims.FORMAT, TokenClaims.COMPACT_FORMAT);
+        claims.put(TokenClaims.USER_ID, user.getId());
+        claims.put(TokenClaims.ROLES_MASK, user.getRolesMask());
         return claims;
     }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
     private boolean isTokenExpired(Claims claims) {
         return claims.getExpiration().before(new Date());
     }
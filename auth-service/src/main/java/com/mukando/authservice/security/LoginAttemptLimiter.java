@@ -0,0 +1,124 @@
+package com.mukando.authservice.security;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mukando.commons.exception.TooManyRequestsException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sliding-window failure counters per username and per client IP, checked before
+ * any database lookup or password hashing. Each key keeps a {@link SlidingWindow}
+ * of time buckets updated with CAS only, and the keys live in size-bounded caches
+ * that forget idle entries, so memory stays flat under credential-stuffing traffic.
+ */
+@Slf4j
+@Component
+public class LoginAttemptLimiter {
+
+    private static final String THROTTLED_MESSAGE = "Too many failed login attempts, please retry later";
+    private final long bucketMillis;
+    private final long lockoutMillis;
+    private final Scope usernames;
+    private final Scope clientIps;
+    private final Counter failures;
+    private final Counter throttled;
+
+    public LoginAttemptLimiter(
+            @Value("${security.login.throttle.window:15m}") Duration window,
+            @Value("${security.login.throttle.lockout:15m}") Duration lockout,
+            @Value("${security.login.throttle.max-failures-per-username:5}") int maxFailuresPerUsername,
+            @Value("${security.login.throttle.max-failures-per-ip:50}") int maxFailuresPerIp,
+            @Value("${security.login.throttle.max-entries:100000}") long maxEntries,
+            MeterRegistry meterRegistry) {
+        this.bucketMillis = Math.max(1, window.toMillis() / SlidingWindow.BUCKETS);
+        this.lockoutMillis = lockout.toMillis();
+        Duration idle = window.compareTo(lockout) >= 0 ? window : lockout;
+        this.usernames = new Scope("username", maxFailuresPerUsername, maxEntries, idle, meterRegistry);
+        this.clientIps = new Scope("ip", maxFailuresPerIp, maxEntries, idle, meterRegistry);
+        this.failures = Counter.builder("auth.login.failures").register(meterRegistry);
+        this.throttled = Counter.builder("auth.login.throttled").register(meterRegistry);
+    }
+
+    public void checkAllowed(String username, String clientIp) {
+        long now = System.currentTimeMillis();
+        long retryAfterMillis = Math.max(
+            usernames.lockedForMillis(usernameKey(username), now),
+            clientIps.lockedForMillis(clientIp, now));
+        if (retryAfterMillis > 0) {
+            throttled.increment();
+            throw new TooManyRequestsException(THROTTLED_MESSAGE,
+                Math.max(1, TimeUnit.MILLISECONDS.toSeconds(retryAfterMillis + 999)));
+        }
+    }
+
+    public void recordFailure(String username, String clientIp) {
+        long now = System.currentTimeMillis();
+        failures.increment();
+        usernames.recordFailure(usernameKey(username), now);
+        clientIps.recordFailure(clientIp, now);
+    }
+
+    public void recordSuccess(String username) {
+        usernames.reset(usernameKey(username));
+    }
+
+    private static String usernameKey(String username) {
+        return username == null ? null : username.toLowerCase(Locale.ROOT);
+    }
+
+    private final class Scope {
+        private final String name;
+        private final int maxFailures;
+        private final Cache<String, SlidingWindow> windows;
+        private final Counter lockouts;
+
+        Scope(String name, int maxFailures, long maxEntries, Duration idle, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.maxFailures = maxFailures;
+            this.windows = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(idle)
+                .build();
+            this.lockouts = Counter.builder("auth.login.lockouts").tag("scope", name).register(meterRegistry);
+            Gauge.builder("auth.login.throttle.tracked", windows, Cache::estimatedSize)
+                .tag("scope", name)
+                .register(meterRegistry);
+        }
+
+        long lockedForMillis(String key, long now) {
+            if (key == null) {
+                return 0;
+            }
+            SlidingWindow window = windows.getIfPresent(key);
+            return window == null ? 0 : window.lockedForMillis(now);
+        }
+
+        void recordFailure(String key, long now) {
+            if (key == null) {
+                return;
+            }
+            SlidingWindow window = windows.get(key, k -> new SlidingWindow(bucketMillis));
+            if (window.increment(now) >= maxFailures && window.lock(now, now + lockoutMillis)) {
+                lockouts.increment();
+                log.warn("Login locked for {} {} after {} failures", name, key, maxFailures);
+            }
+        }
+
+        void reset(String key) {
+            if (key != null) {
+                windows.invalidate(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.mukando.authservice.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Event counter over a sliding window of ten time buckets, plus a lock deadline,
+ * updated with CAS only. Shared by the request limiters in this package, which
+ * keep one per key in a size-bounded cache.
+ */
+final class SlidingWindow {
+
+    static final int BUCKETS = 10;
+    // Each bucket packs the time slot it belongs to (high bits) and its count (low bits)
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final long bucketMillis;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong lockedUntil = new AtomicLong();
+
+    SlidingWindow(long bucketMillis) {
+        this.bucketMillis = bucketMillis;
+    }
+
+    /** Counts one event and returns the total within the window. */
+    long increment(long now) {
+        long slot = now / bucketMillis;
+        int index = (int) (slot % BUCKETS);
+        long current;
+        long next;
+        do {
+            current = buckets.get(index);
+            next = (current >>> COUNT_BITS) == slot
+                ? Math.min(current + 1, (slot << COUNT_BITS) | COUNT_MASK)
+                : (slot << COUNT_BITS) | 1;
+        } while (!buckets.compareAndSet(index, current, next));
+        return total(slot);
+    }
+
+    /** Locks until {@code until} unless already locked; true if this call locked it. */
+    boolean lock(long now, long until) {
+        long current = lockedUntil.get();
+        return current <= now && lockedUntil.compareAndSet(current, until);
+    }
+
+    long lockedForMillis(long now) {
+        return lockedUntil.get() - now;
+    }
+
+    private long total(long slot) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long bucket = buckets.get(i);
+            if (slot - (bucket >>> COUNT_BITS) < BUCKETS) {
+                total += bucket & COUNT_MASK;
+            }
+        }
+        return total;
+    }
+}
@@ -8,8 +8,10 @@ import com.mukando.authservice.dto.UserDetailsResponse;
 
 public interface AuthService {
     RegisterResponse register(RegisterRequest registerRequest);
-    LoginResponse login(LoginRequest loginRequest);
+    LoginResponse login(LoginRequest loginRequest, String clientIp);
+    LoginResponse refresh(String refreshToken);
+    void logout(String authHeader, String refreshToken, boolean allSessions);
     UserDetailsResponse getCurrentUser(String authHeader);
-    boolean verifyPassword(String username, String password);
+    boolean verifyPassword(String username, String password, String clientIp);
     void updatePassword(String username, String newPassword);
 }
@@ -0,0 +1,10 @@
+package com.mukando.authservice.service;
+
+import com.mukando.authservice.dto.AvailabilityResponse;
+
+public interface AvailabilityService {
+    AvailabilityResponse check(String username, String email, String clientIp);
+    boolean isUsernameTaken(String username);
+    boolean isEmailTaken(String email);
+    void record(String username, String email);
+}
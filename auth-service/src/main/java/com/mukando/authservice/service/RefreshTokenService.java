@@ -0,0 +1,10 @@
+package com.mukando.authservice.service;
+
+import com.mukando.authservice.model.User;
+
+public interface RefreshTokenService {
+    String issue(User user);
+    Long consume(String refreshToken);
+    void revoke(String refreshToken);
+    void revokeAll(Long userId);
+}
@@ -0,0 +1,11 @@
+package com.mukando.authservice.service;
+
+import com.mukando.commons.security.Revocations;
+
+import io.jsonwebtoken.Claims;
+
+public interface TokenRevocationService {
+    void revokeToken(Claims claims);
+    void revokeAllForUser(Long userId);
+    Revocations revocationsSince(long sinceMillis);
+}
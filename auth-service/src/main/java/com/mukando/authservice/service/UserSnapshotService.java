@@ -0,0 +1,11 @@
+package com.mukando.authservice.service;
+
+import java.util.List;
+
+import com.mukando.commons.sync.RangeDigest;
+import com.mukando.commons.sync.UserSnapshot;
+
+public interface UserSnapshotService {
+    RangeDigest digest(String after, String upTo);
+    List<UserSnapshot> snapshots(String after, String upTo);
+}
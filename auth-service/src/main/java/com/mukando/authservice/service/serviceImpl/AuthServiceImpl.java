@@ -1,10 +1,9 @@
 package com.mukando.authservice.service.serviceImpl;
 
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,20 +12,26 @@ import com.mukando.authservice.dto.LoginRequest;
 import com.mukando.authservice.dto.LoginResponse;
 import com.mukando.authservice.dto.RegisterRequest;
 import com.mukando.authservice.dto.RegisterResponse;
-import com.mukando.authservice.dto.UserCreationRequest;
 import com.mukando.authservice.dto.UserDetailsResponse;
-import com.mukando.authservice.feign.UserServiceClient;
-import com.mukando.authservice.model.Role;
 import com.mukando.authservice.model.User;
 import com.mukando.authservice.repository.UserRepository;
 import com.mukando.authservice.security.JwtUtil;
+import com.mukando.authservice.security.LoginAttemptLimiter;
 import com.mukando.authservice.service.AuthService;
-import com.mukando.commons.exception.EmailAlreadyExistException;
+import com.mukando.authservice.service.RefreshTokenService;
+import com.mukando.authservice.service.TokenRevocationService;
 import com.mukando.commons.exception.InvalidCredentialsException;
-import com.mukando.commons.exception.UsernameAlreadyExistException;
+import com.mukando.commons.exception.ServiceUnavailableException;
+import com.mukando.commons.outbox.OutboxPublisher;
+import com.mukando.commons.security.Role;
+import com.mukando.commons.security.TokenClaims;
+import com.mukando.commons.sync.UserRegisteredEvent;
 
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
@@ -34,25 +39,37 @@ public class AuthServiceImpl implements AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
-    private final AuthenticationManager authenticationManager;
-    private final UserServiceClient userServiceClient;
+    private final OutboxPublisher outboxPublisher;
+    private final RefreshTokenService refreshTokenService;
+    private final LoginAttemptLimiter loginAttemptLimiter;
+    private final TokenRevocationService tokenRevocationService;
+
+    private volatile String userNotFoundPassword;
 
     @Override
     @Transactional
     public RegisterResponse register(RegisterRequest request) {
-        validateRegistration(request);
         User user = createUserFromRequest(request);
-        userRepository.save(user);
-        
+        // A taken username or email fails the unique constraints here, before the outbox event is written
+        userRepository.saveAndFlush(user);
+
         syncUserToUserService(user);
         return buildRegisterResponse(user);
     }
 
     @Override
-    public boolean verifyPassword(String username, String password) {
-        return userRepository.findByUsername(username)
+    @Transactional(readOnly = true)
+    public boolean verifyPassword(String username, String password, String clientIp) {
+        loginAttemptLimiter.checkAllowed(username, clientIp);
+        boolean matches = userRepository.findByUsername(username)
             .map(user -> passwordEncoder.matches(password, user.getPassword()))
             .orElse(false);
+        if (matches) {
+            loginAttemptLimiter.recordSuccess(username);
+        } else {
+            loginAttemptLimiter.recordFailure(username, clientIp);
+        }
+        return matches;
     }
 
     @Override
@@ -66,14 +83,48 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
-    public LoginResponse login(LoginRequest request) {
-        authenticate(request);
-        User user = getUserByUsername(request.username());
+    public LoginResponse login(LoginRequest request, String clientIp) {
+        loginAttemptLimiter.checkAllowed(request.username(), clientIp);
+        User user;
+        try {
+            user = authenticate(request);
+        } catch (InvalidCredentialsException e) {
+            loginAttemptLimiter.recordFailure(request.username(), clientIp);
+            throw e;
+        }
+        loginAttemptLimiter.recordSuccess(request.username());
         String token = jwtUtil.generateToken(user);
-        return buildLoginResponse(user, token);
+        return buildLoginResponse(user, token, refreshTokenService.issue(user));
+    }
+
+    @Override
+    @Transactional
+    public LoginResponse refresh(String refreshToken) {
+        Long userId = refreshTokenService.consume(refreshToken);
+        User user = userRepository.findById(userId)
+            .filter(User::isEnabled)
+            .orElseThrow(() -> new InvalidCredentialsException("User not found or disabled"));
+        return buildLoginResponse(user, jwtUtil.generateToken(user), refreshTokenService.issue(user));
+    }
+
+    @Override
+    @Transactional
+    public void logout(String authHeader, String refreshToken, boolean allSessions) {
+        validateAuthHeader(authHeader);
+        Claims claims = jwtUtil.parseToken(authHeader.substring(7));
+        tokenRevocationService.revokeToken(claims);
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revoke(refreshToken);
+        }
+        if (allSessions) {
+            Long userId = TokenClaims.userId(claims);
+            tokenRevocationService.revokeAllForUser(userId);
+            refreshTokenService.revokeAll(userId);
+        }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDetailsResponse getCurrentUser(String authHeader) {
         validateAuthHeader(authHeader);
         String token = authHeader.substring(7);
@@ -83,15 +134,6 @@ public class AuthServiceImpl implements AuthService {
     }
 
     // Helper methods
-    private void validateRegistration(RegisterRequest request) {
-        if (userRepository.existsByUsername(request.username())) {
-            throw new UsernameAlreadyExistException("Username already taken: " + request.username());
-        }
-        if (userRepository.existsByEmail(request.email())) {
-            throw new EmailAlreadyExistException("Email already registered: " + request.email());
-        }
-    }
-
     private User createUserFromRequest(RegisterRequest request) {
         return User.builder()
             .username(request.username())
@@ -117,8 +159,9 @@ public class AuthServiceImpl implements AuthService {
     }
 
     private void syncUserToUserService(User user) {
-        userServiceClient.createUser(new UserCreationRequest(
+        outboxPublisher.publish(UserRegisteredEvent.TYPE, user.getUsername(), new UserRegisteredEvent(
             user.getUsername(),
+            user.getPassword(),
             user.getEmail(),
             user.getFirstName(),
             user.getLastName(),
@@ -128,7 +171,8 @@ public class AuthServiceImpl implements AuthService {
             user.getCountry(),
             user.getRoles().stream()
                 .map(Role::name)
-                .collect(Collectors.toSet())
+                .collect(Collectors.toSet()),
+            user.getPasswordVersion()
         ));
     }
 
@@ -147,25 +191,43 @@ public class AuthServiceImpl implements AuthService {
         );
     }
 
-    private void authenticate(LoginRequest request) {
-        try {
-            authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                    request.username(), 
-                    request.password()
-                )
-            );
-        } catch (Exception e) {
+    private User authenticate(LoginRequest request) {
+        User user = userRepository.findByUsername(request.username()).orElse(null);
+        if (user == null) {
+            // Spend the same hashing time as a real check so unknown usernames cannot be probed
+            passwordEncoder.matches(request.password(), userNotFoundPassword());
             throw new InvalidCredentialsException("Invalid credentials");
         }
+        if (!passwordEncoder.matches(request.password(), user.getPassword()) || !user.isEnabled()) {
+            throw new InvalidCredentialsException("Invalid credentials");
+        }
+        upgradePasswordHash(user, request.password());
+        return user;
     }
 
-    private User getUserByUsername(String username) {
-        return userRepository.findByUsername(username)
-            .orElseThrow(() -> new InvalidCredentialsException("User not found"));
+    private void upgradePasswordHash(User user, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        try {
+            user.setPassword(passwordEncoder.encode(rawPassword));
+            userRepository.save(user);
+        } catch (ServiceUnavailableException e) {
+            // Hashing pool is saturated; keep the old hash and try again on a later login
+            log.debug("Skipped password hash upgrade for user {}", user.getId());
+        }
+    }
+
+    private String userNotFoundPassword() {
+        String encoded = userNotFoundPassword;
+        if (encoded == null) {
+            encoded = passwordEncoder.encode(UUID.randomUUID().toString());
+            userNotFoundPassword = encoded;
+        }
+        return encoded;
     }
 
-    private LoginResponse buildLoginResponse(User user, String token) {
+    private LoginResponse buildLoginResponse(User user, String token, String refreshToken) {
         return new LoginResponse(
             user.getUsername(),
             user.getEmail(),
@@ -173,7 +235,8 @@ public class AuthServiceImpl implements AuthService {
             user.getRoles(),
             user.getFirstName(),
             user.getPhoneNumber(),
-            token
+            token,
+            refreshToken
         );
     }
 
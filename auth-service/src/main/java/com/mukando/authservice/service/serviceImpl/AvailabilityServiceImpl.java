@@ -0,0 +1,215 @@
+package com.mukando.authservice.service.serviceImpl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mukando.authservice.dto.AvailabilityResponse;
+import com.mukando.authservice.repository.UserRepository;
+import com.mukando.authservice.security.AvailabilityLookupLimiter;
+import com.mukando.authservice.service.AvailabilityService;
+import com.mukando.commons.bloom.BloomFilter;
+import com.mukando.commons.jpa.Collation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Answers "is this username/email taken?" from Bloom filters where it can. A
+ * negative from the filter never reaches the database; only "maybe taken"
+ * answers, and every answer before the first build completes, fall through to an
+ * exists query. Every instance keeps its filters current by polling for users
+ * written since its previous poll, so names taken through another instance or by
+ * sync events show as taken within {@code refresh-interval}; inside that window
+ * a taken name may still show as available, and registration then fails on the
+ * unique constraint. Keys are folded with {@link Collation}, the way MySQL's
+ * accent- and case-insensitive collation compares them. Names freed by deletes
+ * stay set until the next periodic rebuild, which only costs a database lookup.
+ */
+@Slf4j
+@Service
+public class AvailabilityServiceImpl implements AvailabilityService {
+
+    private record Filters(BloomFilter usernames, BloomFilter emails) {}
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final UserRepository userRepository;
+    private final AvailabilityLookupLimiter lookupLimiter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long expectedUsers;
+    private final double falsePositiveProbability;
+    private final Duration refreshOverlap;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // The startup build blocks on JDBC for its whole run, so it gets a thread of its own
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "availability-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Filters current;
+    private volatile Filters building;
+    // Start of the last rebuild or refresh; rows written from then on are picked up by the next refresh
+    private volatile LocalDateTime refreshedFrom;
+
+    private final Counter filterAnswers;
+    private final Counter databaseAnswers;
+
+    public AvailabilityServiceImpl(
+            UserRepository userRepository,
+            AvailabilityLookupLimiter lookupLimiter,
+            PlatformTransactionManager transactionManager,
+            @Value("${auth.availability.expected-users:1000000}") long expectedUsers,
+            @Value("${auth.availability.false-positive-probability:0.01}") double falsePositiveProbability,
+            @Value("${auth.availability.refresh-overlap:30s}") Duration refreshOverlap,
+            MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.lookupLimiter = lookupLimiter;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.refreshOverlap = refreshOverlap;
+        this.filterAnswers = Counter.builder("auth.availability.lookups").tag("source", "filter").register(meterRegistry);
+        this.databaseAnswers = Counter.builder("auth.availability.lookups").tag("source", "database")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuildExecutor.execute(this::rebuild);
+    }
+
+    @PreDestroy
+    public void close() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    @Scheduled(cron = "${auth.availability.rebuild-cron:0 0 4 * * *}")
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long started = System.nanoTime();
+            LocalDateTime scanFrom = LocalDateTime.now();
+            long size = Math.max(expectedUsers, userRepository.count() * 2);
+            Filters next = new Filters(
+                BloomFilter.create(size, falsePositiveProbability),
+                BloomFilter.create(size, falsePositiveProbability));
+            // Registrations committed while the scan runs are recorded into both filters
+            building = next;
+            long scanned = 0;
+            long afterId = 0;
+            List<Object[]> page;
+            do {
+                long from = afterId;
+                page = readOnlyTransaction.execute(status ->
+                    userRepository.findUsernamesAndEmailsAfterId(from, PageRequest.of(0, REBUILD_PAGE_SIZE)));
+                for (Object[] row : page) {
+                    put(next, (String) row[1], (String) row[2]);
+                }
+                scanned += page.size();
+                afterId = page.isEmpty() ? afterId : (Long) page.get(page.size() - 1)[0];
+            } while (page.size() == REBUILD_PAGE_SIZE);
+            current = next;
+            refreshedFrom = scanFrom;
+            log.info("Built availability filters over {} users in {} ms", scanned,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (RuntimeException e) {
+            log.error("Building availability filters failed; lookups keep using the previous filters", e);
+        } finally {
+            building = null;
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Adds the users written since the previous refresh, looking back an extra
+     * {@code refresh-overlap} for clock skew between instances and for writes that
+     * committed after a later one.
+     */
+    @Scheduled(fixedDelayString = "${auth.availability.refresh-interval:5000}")
+    public void refresh() {
+        LocalDateTime from = refreshedFrom;
+        if (current == null || from == null || rebuilding.get()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            List<Object[]> rows = readOnlyTransaction.execute(status ->
+                userRepository.findUsernamesAndEmailsWrittenAfter(from.minus(refreshOverlap)));
+            rows.forEach(row -> record((String) row[0], (String) row[1]));
+            refreshedFrom = now;
+        } catch (RuntimeException e) {
+            log.warn("Refreshing availability filters failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public AvailabilityResponse check(String username, String email, String clientIp) {
+        lookupLimiter.checkAllowed(clientIp);
+        return new AvailabilityResponse(
+            username == null ? null : !isUsernameTaken(username),
+            email == null ? null : !isEmailTaken(email));
+    }
+
+    @Override
+    public boolean isUsernameTaken(String username) {
+        Filters filters = current;
+        if (filters != null && !filters.usernames().mightContain(Collation.key(username))) {
+            filterAnswers.increment();
+            return false;
+        }
+        databaseAnswers.increment();
+        return userRepository.existsByUsername(username);
+    }
+
+    @Override
+    public boolean isEmailTaken(String email) {
+        Filters filters = current;
+        if (filters != null && !filters.emails().mightContain(Collation.key(email))) {
+            filterAnswers.increment();
+            return false;
+        }
+        databaseAnswers.increment();
+        return userRepository.existsByEmail(email);
+    }
+
+    @Override
+    public void record(String username, String email) {
+        Filters filters = current;
+        if (filters != null) {
+            put(filters, username, email);
+        }
+        Filters next = building;
+        if (next != null) {
+            put(next, username, email);
+        }
+    }
+
+    private static void put(Filters filters, String username, String email) {
+        if (username != null) {
+            filters.usernames().put(Collation.key(username));
+        }
+        if (email != null) {
+            filters.emails().put(Collation.key(email));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.mukando.authservice.service.serviceImpl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mukando.authservice.model.RefreshToken;
+import com.mukando.authservice.model.User;
+import com.mukando.authservice.repository.RefreshTokenRepository;
+import com.mukando.authservice.service.RefreshTokenService;
+import com.mukando.commons.exception.InvalidCredentialsException;
+import com.mukando.commons.exception.RefreshTokenExpiredException;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final long refreshExpiration;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Cache<String, CachedToken> cache;
+
+    public RefreshTokenServiceImpl(
+            RefreshTokenRepository refreshTokenRepository,
+            @Value("${jwt.refresh.expiration}") long refreshExpiration,
+            @Value("${jwt.refresh.cache-size:50000}") long cacheSize
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshExpiration = refreshExpiration;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterWrite(refreshExpiration, TimeUnit.MILLISECONDS)
+            .build();
+    }
+
+    @Override
+    @Transactional
+    public String issue(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = refreshTokenRepository.save(RefreshToken.builder()
+            .tokenHash(hash(rawToken))
+            .userId(user.getId())
+            .expiryDate(LocalDateTime.now().plus(Duration.ofMillis(refreshExpiration)))
+            .build());
+        cache.put(refreshToken.getTokenHash(), CachedToken.of(refreshToken));
+        return rawToken;
+    }
+
+    @Override
+    @Transactional
+    public Long consume(String rawToken) {
+        String tokenHash = hash(rawToken);
+        CachedToken token = cache.getIfPresent(tokenHash);
+        if (token == null) {
+            token = refreshTokenRepository.findByTokenHash(tokenHash)
+                .map(CachedToken::of)
+                .orElseThrow(() -> new InvalidCredentialsException("Invalid refresh token"));
+        }
+        cache.invalidate(tokenHash);
+
+        if (token.expiresAtMillis() <= System.currentTimeMillis()) {
+            throw new RefreshTokenExpiredException("Refresh token has expired");
+        }
+        // The delete doubles as the rotation lock: of two concurrent refreshes only one removes the row
+        if (refreshTokenRepository.deleteByIdReturningCount(token.id()) == 0) {
+            throw new InvalidCredentialsException("Refresh token already used");
+        }
+        return token.userId();
+    }
+
+    @Override
+    @Transactional
+    public void revoke(String rawToken) {
+        String tokenHash = hash(rawToken);
+        refreshTokenRepository.deleteByTokenHash(tokenHash);
+        cache.invalidate(tokenHash);
+    }
+
+    @Override
+    @Transactional
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+        cache.asMap().values().removeIf(token -> token.userId().equals(userId));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.cleanup-interval:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired refresh tokens", purged);
+        }
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record CachedToken(Long id, Long userId, long expiresAtMillis) {
+        static CachedToken of(RefreshToken token) {
+            return new CachedToken(
+                token.getId(),
+                token.getUserId(),
+                token.getExpiryDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+            );
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.mukando.authservice.service.serviceImpl;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mukando.authservice.model.RevokedToken;
+import com.mukando.authservice.model.TokenWatermark;
+import com.mukando.authservice.repository.RevokedTokenRepository;
+import com.mukando.authservice.repository.TokenWatermarkRepository;
+import com.mukando.authservice.service.TokenRevocationService;
+import com.mukando.commons.security.RevocationSync;
+import com.mukando.commons.security.Revocations;
+import com.mukando.commons.security.TokenDenyList;
+
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stores revocations and serves them as a feed. Every auth-service instance polls
+ * the stored revocations into its own deny-list, and the gateway and user-service
+ * poll the same feed over /auth/internal/revocations, so a token revoked through
+ * one instance is rejected everywhere within a poll interval.
+ */
+@Slf4j
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    private final TokenDenyList denyList;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenWatermarkRepository tokenWatermarkRepository;
+    private final long jwtExpiration;
+    private final RevocationSync revocationSync;
+
+    public TokenRevocationServiceImpl(
+            TokenDenyList denyList,
+            RevokedTokenRepository revokedTokenRepository,
+            TokenWatermarkRepository tokenWatermarkRepository,
+            @Value("${jwt.expiration}") long jwtExpiration,
+            @Value("${jwt.revocation.sync-overlap:30000}") long syncOverlap
+    ) {
+        this.denyList = denyList;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.tokenWatermarkRepository = tokenWatermarkRepository;
+        this.jwtExpiration = jwtExpiration;
+        this.revocationSync = new RevocationSync(denyList, this::revocationsSince, syncOverlap);
+    }
+
+    @Override
+    @Transactional
+    public void revokeToken(Claims claims) {
+        if (claims.getId() == null) {
+            return;
+        }
+        long expiresAt = claims.getExpiration().getTime();
+        // A repeated logout may reach an instance that has not polled the first one yet
+        if (!revokedTokenRepository.existsByTokenId(claims.getId())) {
+            revokedTokenRepository.save(RevokedToken.builder()
+                .tokenId(claims.getId())
+                .expiryDate(toLocalDateTime(expiresAt))
+                .build());
+        }
+        denyList.revokeToken(claims.getId(), expiresAt);
+    }
+
+    @Override
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        // Compared with the tokens' millisecond issue time, so a token issued right after it stays valid
+        long revokedBefore = System.currentTimeMillis();
+        TokenWatermark watermark = tokenWatermarkRepository.findById(userId)
+            .orElseGet(() -> TokenWatermark.builder().userId(userId).build());
+        watermark.setRevokedBefore(toLocalDateTime(revokedBefore));
+        tokenWatermarkRepository.save(watermark);
+        denyList.revokeIssuedBefore(userId, revokedBefore);
+    }
+
+    /**
+     * Revocations stored after {@code sinceMillis} that still cover live tokens; all of
+     * them for 0.
+     */
+    @Override
+    public Revocations revocationsSince(long sinceMillis) {
+        long asOf = System.currentTimeMillis();
+        LocalDateTime now = toLocalDateTime(asOf);
+        LocalDateTime since = toLocalDateTime(sinceMillis);
+        Map<String, Long> tokens = new HashMap<>();
+        revokedTokenRepository.findByLastModifiedDateAfterAndExpiryDateAfter(since, now)
+            .forEach(token -> tokens.put(token.getTokenId(), toEpochMillis(token.getExpiryDate())));
+        Map<Long, Long> watermarks = new HashMap<>();
+        tokenWatermarkRepository.findByLastModifiedDateAfterAndRevokedBeforeAfter(
+                since, now.minusNanos(jwtExpiration * 1_000_000))
+            .forEach(watermark -> watermarks.put(watermark.getUserId(), toEpochMillis(watermark.getRevokedBefore())));
+        return new Revocations(tokens, watermarks, asOf);
+    }
+
+    // Runs before the web server accepts requests so no revoked token slips through after a restart
+    @PostConstruct
+    public void loadRevocations() {
+        revocationSync.poll();
+    }
+
+    // Picks up revocations made through the other instances; not a bean, so not scheduled on its own
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:5000}")
+    public void syncRevocations() {
+        revocationSync.poll();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.cleanup-interval:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        denyList.purgeExpired(System.currentTimeMillis());
+        int purged = revokedTokenRepository.deleteExpired(now)
+            + tokenWatermarkRepository.deleteExpired(now.minusNanos(jwtExpiration * 1_000_000));
+        if (purged > 0) {
+            log.info("Purged {} expired token revocations", purged);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -1,6 +1,7 @@
 package com.mukando.authservice.service.serviceImpl;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.mukando.authservice.model.User;
 import com.mukando.authservice.repository.UserRepository;
@@ -15,6 +16,7 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
 
     @Override
+    @Transactional(readOnly = true)
     public User findByUsername(String username) {
         return userRepository.findByUsername(username)
             .orElseThrow(() -> new NotFoundException("User not found: " + username));
@@ -0,0 +1,34 @@
+package com.mukando.authservice.service.serviceImpl;
+
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mukando.authservice.repository.UserRepository;
+import com.mukando.authservice.service.UserSnapshotService;
+import com.mukando.commons.security.Role;
+import com.mukando.commons.sync.RangeDigest;
+import com.mukando.commons.sync.UserDigest;
+import com.mukando.commons.sync.UserSnapshot;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class UserSnapshotServiceImpl implements UserSnapshotService {
+
+    private final UserRepository userRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public RangeDigest digest(String after, String upTo) {
+        return UserDigest.of(snapshots(after, upTo));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserSnapshot> snapshots(String after, String upTo) {
+        return UserSnapshot.fromRows(userRepository.findSnapshotRows(after, upTo), Role.MASK);
+    }
+}
@@ -0,0 +1,37 @@
+package com.mukando.authservice.sync;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mukando.authservice.model.User;
+import com.mukando.authservice.repository.UserRepository;
+import com.mukando.commons.exception.UserNotFoundException;
+import com.mukando.commons.outbox.InboxHandler;
+import com.mukando.commons.sync.PasswordChangedEvent;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class PasswordChangedHandler implements InboxHandler {
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String eventType() {
+        return PasswordChangedEvent.TYPE;
+    }
+
+    @Override
+    public void handle(JsonNode payload) {
+        PasswordChangedEvent event = objectMapper.convertValue(payload, PasswordChangedEvent.class);
+        // Throwing leaves the event in the sender's outbox until the registration has arrived
+        User user = userRepository.findByUsername(event.username())
+            .orElseThrow(() -> new UserNotFoundException("User not found: " + event.username()));
+        user.setPassword(event.passwordHash());
+        user.setPasswordVersion(event.passwordVersion());
+        userRepository.save(user);
+    }
+}
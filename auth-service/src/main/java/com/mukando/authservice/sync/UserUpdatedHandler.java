@@ -0,0 +1,53 @@
+package com.mukando.authservice.sync;
+
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mukando.authservice.model.User;
+import com.mukando.authservice.repository.UserRepository;
+import com.mukando.commons.exception.UserNotFoundException;
+import com.mukando.commons.outbox.InboxHandler;
+import com.mukando.commons.security.Role;
+import com.mukando.commons.sync.UserSnapshot;
+import com.mukando.commons.sync.UserUpdatedEvent;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class UserUpdatedHandler implements InboxHandler {
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String eventType() {
+        return UserUpdatedEvent.TYPE;
+    }
+
+    @Override
+    public void handle(JsonNode payload) {
+        UserSnapshot snapshot = objectMapper.convertValue(payload, UserUpdatedEvent.class).user();
+        User user = userRepository.findByUsername(snapshot.username())
+            .orElseThrow(() -> new UserNotFoundException("User not found: " + snapshot.username()));
+        apply(user, snapshot);
+        userRepository.save(user);
+    }
+
+    static void apply(User user, UserSnapshot snapshot) {
+        user.setEmail(snapshot.email());
+        user.setFirstName(snapshot.firstName());
+        user.setLastName(snapshot.lastName());
+        user.setPhoneNumber(snapshot.phoneNumber());
+        user.setAddress(snapshot.address());
+        user.setCity(snapshot.city());
+        user.setCountry(snapshot.country());
+        user.setEnabled(snapshot.enabled());
+        user.setRoles(snapshot.roles().stream()
+            .map(Role::valueOf)
+            .collect(Collectors.toSet()));
+    }
+}
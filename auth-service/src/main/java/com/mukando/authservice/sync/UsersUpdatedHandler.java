@@ -0,0 +1,61 @@
+package com.mukando.authservice.sync;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mukando.authservice.model.User;
+import com.mukando.authservice.repository.UserRepository;
+import com.mukando.commons.outbox.InboxHandler;
+import com.mukando.commons.sync.UserSnapshot;
+import com.mukando.commons.sync.UsersUpdatedEvent;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies a batch of user changes from a set-based update, as queued before
+ * user-service sent one {@code user.updated} event per user. Users not found here
+ * are logged and skipped so the ones that are found still apply.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UsersUpdatedHandler implements InboxHandler {
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String eventType() {
+        return UsersUpdatedEvent.TYPE;
+    }
+
+    @Override
+    public void handle(JsonNode payload) {
+        List<UserSnapshot> snapshots = objectMapper.convertValue(payload, UsersUpdatedEvent.class).users();
+        Map<String, User> users = userRepository.findAllByUsernameIn(
+                snapshots.stream().map(UserSnapshot::username).toList()).stream()
+            .collect(Collectors.toMap(User::getUsername, Function.identity()));
+        List<String> missing = new ArrayList<>();
+        for (UserSnapshot snapshot : snapshots) {
+            User user = users.get(snapshot.username());
+            if (user == null) {
+                missing.add(snapshot.username());
+            } else {
+                UserUpdatedHandler.apply(user, snapshot);
+            }
+        }
+        // Retrying would fail the same way and hold back the found users; reconciliation repairs the rest
+        if (!missing.isEmpty()) {
+            log.warn("Skipped {} of {} bulk-updated users not found here: {}", missing.size(), snapshots.size(), missing);
+        }
+        userRepository.saveAll(users.values());
+    }
+}
@@ -0,0 +1,5 @@
+-- Counts password changes made in user-service. auth-service copies it with each
+-- change, so reconciliation can tell whether both hold the same password without
+-- comparing hashes, which each service may rehash on its own.
+
+alter table mukando_users add column password_version integer default 0 not null;
@@ -0,0 +1,41 @@
+-- The schema exactly as ddl-auto created it before migrations took over, including
+-- Hibernate's generated constraint names (engine=InnoDB left to the server default).
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate),
+-- so this only runs against an empty schema; every later change has its own version.
+
+create table mukando_users (
+    deleted bit not null,
+    enabled bit not null,
+    version integer,
+    created_date datetime(6),
+    id bigint not null auto_increment,
+    last_modified_date datetime(6),
+    address varchar(255),
+    city varchar(255),
+    country varchar(255),
+    created_by varchar(255),
+    email varchar(255) not null,
+    first_name varchar(255),
+    last_modified_by varchar(255),
+    last_name varchar(255),
+    password varchar(255) not null,
+    phone_number varchar(255),
+    username varchar(255) not null,
+    primary key (id)
+);
+
+create table user_roles (
+    user_id bigint not null,
+    roles enum ('ADMIN','GUEST','MEMBER','MODERATOR','PRESIDENT','SUPERADMIN','TREASURER','USER')
+);
+
+alter table mukando_users
+   add constraint UKn45ass0br8soj3vk9g205pna2 unique (email);
+
+alter table mukando_users
+   add constraint UKd2csmnrcoxt09qnjd6kx0n6p7 unique (username);
+
+alter table user_roles
+   add constraint FKo85nqcehbyqopc2wvd24rvdp7
+   foreign key (user_id)
+   references mukando_users (id);
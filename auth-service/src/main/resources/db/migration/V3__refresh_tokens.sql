@@ -0,0 +1,19 @@
+-- Rotating refresh tokens, stored as SHA-256 hashes. "if not exists" because
+-- databases that ran with ddl-auto already have the table.
+-- Secondary indexes are added by the lookup indexes migration, which checks for
+-- them first.
+
+create table if not exists refresh_tokens (
+    id bigint not null auto_increment,
+    created_by varchar(255),
+    created_date datetime(6),
+    last_modified_by varchar(255),
+    last_modified_date datetime(6),
+    version integer,
+    deleted bit not null,
+    token_hash varchar(64) not null,
+    user_id bigint not null,
+    expiry_date datetime(6) not null,
+    primary key (id),
+    constraint uk_refresh_tokens_token_hash unique (token_hash)
+);
@@ -0,0 +1,31 @@
+-- Revoked access token ids and per-user "issued before" watermarks, kept until the
+-- tokens they cover expire. "if not exists" because databases that ran with
+-- ddl-auto already have the tables.
+-- Secondary indexes are added by the lookup indexes migration, which checks for
+-- them first.
+
+create table if not exists revoked_tokens (
+    id bigint not null auto_increment,
+    created_by varchar(255),
+    created_date datetime(6),
+    last_modified_by varchar(255),
+    last_modified_date datetime(6),
+    version integer,
+    deleted bit not null,
+    token_id varchar(36) not null,
+    expiry_date datetime(6) not null,
+    primary key (id),
+    constraint uk_revoked_tokens_token_id unique (token_id)
+);
+
+create table if not exists token_watermarks (
+    user_id bigint not null,
+    created_by varchar(255),
+    created_date datetime(6),
+    last_modified_by varchar(255),
+    last_modified_date datetime(6),
+    version integer,
+    deleted bit not null,
+    revoked_before datetime(6) not null,
+    primary key (user_id)
+);
@@ -0,0 +1,35 @@
+-- Transactional outbox of sync events for user-service, and the ids of events
+-- received from it. "if not exists" because databases that ran with ddl-auto
+-- already have the tables.
+-- Secondary indexes are added by the lookup indexes migration, which checks for
+-- them first.
+
+create table if not exists outbox_events (
+    id bigint not null auto_increment,
+    created_by varchar(255),
+    created_date datetime(6),
+    last_modified_by varchar(255),
+    last_modified_date datetime(6),
+    version integer,
+    deleted bit not null,
+    event_id varchar(36) not null,
+    event_type varchar(64) not null,
+    aggregate_id varchar(255) not null,
+    payload ${clob} not null,
+    attempts integer not null,
+    next_attempt_at datetime(6) not null,
+    last_error varchar(512),
+    primary key (id),
+    constraint uk_outbox_events_event_id unique (event_id)
+);
+
+create table if not exists processed_events (
+    event_id varchar(36) not null,
+    created_by varchar(255),
+    created_date datetime(6),
+    last_modified_by varchar(255),
+    last_modified_date datetime(6),
+    version integer,
+    deleted bit not null,
+    primary key (event_id)
+);
@@ -0,0 +1,157 @@
+package com.mukando.authservice.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mukando.commons.datasource.ReadWriteRoutingDataSource;
+import com.mukando.commons.datasource.ReadYourWrites;
+import com.mukando.commons.datasource.ReadYourWritesFilter;
+import com.mukando.commons.outbox.OutboxEvent;
+
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+
+// Two embedded databases stand in for the primary and the replica; each knows its own name
+class ReadWriteRoutingDataSourceTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private EntityManager entityManager;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+
+        entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(ReadWriteRoutingDataSource.lazy(primary, replica));
+        entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactory.setPackagesToScan(OutboxEvent.class.getPackageName());
+        entityManagerFactory.afterPropertiesSet();
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory.getObject());
+
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory.getObject());
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.end();
+        entityManagerFactory.destroy();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void readOnlyTransactionsReadFromTheReplica() {
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+        assertThat(nodeIn(readWrite)).isEqualTo("primary");
+    }
+
+    @Test
+    void requestThatWroteKeepsReadingFromThePrimary() {
+        ReadYourWrites.begin();
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+
+        readWrite.executeWithoutResult(status -> entityManager.createNativeQuery(
+            "update node set writes = writes + 1").executeUpdate());
+
+        assertThat(nodeIn(readOnly)).isEqualTo("primary");
+        assertThat(writesIn(readOnly)).isEqualTo(1);
+
+        ReadYourWrites.end();
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void clientThatWroteWithinTheWindowReadsFromThePrimary() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+        List<String> nodes = new ArrayList<>();
+        FilterChain write = (request, response) -> readWrite.executeWithoutResult(status ->
+            entityManager.createNativeQuery("update node set writes = writes + 1").executeUpdate());
+        FilterChain read = (request, response) -> nodes.add(nodeIn(readOnly));
+
+        MockHttpServletResponse written = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(), written, write);
+        Cookie lastWrite = written.getCookie(ReadYourWritesFilter.LAST_WRITE_COOKIE);
+        assertThat(lastWrite).isNotNull();
+        assertThat(written.getHeader(ReadYourWritesFilter.LAST_WRITE_HEADER)).isEqualTo(lastWrite.getValue());
+
+        MockHttpServletRequest withCookie = new MockHttpServletRequest();
+        withCookie.setCookies(lastWrite);
+        filter.doFilter(withCookie, new MockHttpServletResponse(), read);
+
+        MockHttpServletRequest withHeader = new MockHttpServletRequest();
+        withHeader.addHeader(ReadYourWritesFilter.LAST_WRITE_HEADER, lastWrite.getValue());
+        filter.doFilter(withHeader, new MockHttpServletResponse(), read);
+
+        MockHttpServletRequest expired = new MockHttpServletRequest();
+        expired.addHeader(ReadYourWritesFilter.LAST_WRITE_HEADER, System.currentTimeMillis() - 60_000);
+        filter.doFilter(expired, new MockHttpServletResponse(), read);
+
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), read);
+
+        assertThat(nodes).containsExactly("primary", "primary", "replica", "replica");
+    }
+
+    @Test
+    void backgroundWorkCanReadFromThePrimary() {
+        assertThat(ReadYourWrites.primary(() -> nodeIn(readOnly))).isEqualTo("primary");
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+
+        ReadYourWrites.begin();
+        assertThat(ReadYourWrites.primary(() -> nodeIn(readOnly))).isEqualTo("primary");
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void writesOutsideARequestDoNotPin() {
+        readWrite.executeWithoutResult(status -> entityManager.createNativeQuery(
+            "update node set writes = writes + 1").executeUpdate());
+
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+    }
+
+    private String nodeIn(TransactionTemplate transaction) {
+        return transaction.execute(status ->
+            (String) entityManager.createNativeQuery("select name from node").getSingleResult());
+    }
+
+    private int writesIn(TransactionTemplate transaction) {
+        Number writes = transaction.execute(status ->
+            (Number) entityManager.createNativeQuery("select writes from node").getSingleResult());
+        return writes.intValue();
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).setName(name).build();
+        JdbcTemplate jdbc = new JdbcTemplate(database);
+        jdbc.execute("create table node (name varchar(16), writes int)");
+        jdbc.update("insert into node values (?, 0)", name);
+        return database;
+    }
+}
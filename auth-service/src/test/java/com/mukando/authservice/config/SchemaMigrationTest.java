@@ -0,0 +1,214 @@
+package com.mukando.authservice.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Connection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mukando.authservice.model.User;
+import com.mukando.authservice.repository.UserRepository;
+import com.mukando.commons.jpa.IndexVerifier;
+import com.mukando.commons.jpa.JdbcSchema;
+import com.mukando.commons.outbox.OutboxEvent;
+
+// Each context only starts if the migrations produce a schema Hibernate validates against
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:${random.uuid};MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+    "spring.flyway.placeholders.clob=clob"
+})
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ContextConfiguration(classes = SchemaMigrationTest.JpaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SchemaMigrationTest {
+
+    private static final String[] VERSIONS = {"1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11"};
+
+    @Configuration
+    @EntityScan(basePackageClasses = {User.class, OutboxEvent.class})
+    @EnableJpaRepositories(basePackageClasses = UserRepository.class)
+    @Import(IndexVerifier.class)
+    static class JpaConfig {
+    }
+
+    // Nested classes autowire their own fields: the enclosing instance is injected from another context
+    @Nested
+    class FromEmptyDatabase {
+
+        @Autowired
+        private Flyway flyway;
+
+        @Autowired
+        private JdbcTemplate jdbc;
+
+        @Autowired
+        private IndexVerifier indexVerifier;
+
+        @Test
+        void appliesEveryMigration() {
+            assertThat(flyway.info().pending()).isEmpty();
+            assertThat(flyway.info().applied()).extracting(migration -> migration.getVersion().getVersion())
+                .containsExactly(VERSIONS);
+        }
+
+        @Test
+        void missingIndexFailsVerification() throws Exception {
+            jdbc.execute("drop index idx_token_watermarks_revoked_before");
+            try {
+                assertThatThrownBy(indexVerifier::afterPropertiesSet)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("token_watermarks (revoked_before)");
+            } finally {
+                jdbc.execute("create index idx_token_watermarks_revoked_before on token_watermarks (revoked_before)");
+            }
+            indexVerifier.afterPropertiesSet();
+        }
+    }
+
+    // A database ddl-auto created before the series: baselined at V1, then migrated
+    @Nested
+    @ContextConfiguration(classes = PreSeriesSchema.class)
+    class FromPreSeriesSchema {
+
+        @Autowired
+        private Flyway flyway;
+
+        @Autowired
+        private DataSource dataSource;
+
+        @Test
+        void baselinesAndAppliesTheLaterMigrations() {
+            assertThat(flyway.info().applied()).extracting(migration -> migration.getVersion().getVersion())
+                .containsExactly(VERSIONS);
+            assertThat(flyway.info().applied()[0].getType().isBaseline()).isTrue();
+        }
+
+        @Test
+        void movesRolesIntoTheBitmask() throws Exception {
+            assertRolesMoved(dataSource);
+        }
+
+        @Test
+        void namesTheUniqueConstraints() throws Exception {
+            assertThat(uniqueConstraints(dataSource)).containsExactlyInAnyOrder("uk_users_username", "uk_users_email");
+        }
+    }
+
+    // A database where the startup roles backfill ran and ddl-auto created later tables and keys
+    @Nested
+    @ContextConfiguration(classes = BackfilledSchema.class)
+    class FromBackfilledSchema {
+
+        @Autowired
+        private Flyway flyway;
+
+        @Autowired
+        private DataSource dataSource;
+
+        @Test
+        void baselinesAndAppliesTheLaterMigrations() {
+            assertThat(flyway.info().applied()).extracting(migration -> migration.getVersion().getVersion())
+                .containsExactly(VERSIONS);
+        }
+
+        @Test
+        void keepsTheBackfilledRoles() throws Exception {
+            assertRolesMoved(dataSource);
+        }
+
+        @Test
+        void namesTheUniqueConstraints() throws Exception {
+            assertThat(uniqueConstraints(dataSource)).containsExactlyInAnyOrder("uk_users_username", "uk_users_email");
+        }
+    }
+
+    private static void assertRolesMoved(DataSource dataSource) throws Exception {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        assertThat(jdbc.queryForList("select roles_mask from mukando_users order by id", Integer.class))
+            .containsExactly(0b11, 0b1000000);
+        assertThat(jdbc.queryForObject("select count(*) from user_roles_legacy", Integer.class)).isEqualTo(4);
+        try (Connection connection = dataSource.getConnection()) {
+            JdbcSchema schema = new JdbcSchema(connection);
+            assertThat(schema.hasTable("user_roles")).isFalse();
+            assertThat(schema.constraints("user_roles_legacy", "FOREIGN KEY")).isEmpty();
+        }
+    }
+
+    private static Set<String> uniqueConstraints(DataSource dataSource) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            return new JdbcSchema(connection).constraints("mukando_users", "UNIQUE").keySet().stream()
+                .map(name -> name.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        }
+    }
+
+    static class PreSeriesSchema {
+
+        @Bean
+        FlywayMigrationStrategy seedPreSeriesSchema() {
+            return flyway -> {
+                DataSource dataSource = flyway.getConfiguration().getDataSource();
+                new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline.sql")).execute(dataSource);
+                insertUsers(new JdbcTemplate(dataSource));
+                flyway.migrate();
+            };
+        }
+    }
+
+    static class BackfilledSchema {
+
+        @Bean
+        FlywayMigrationStrategy seedBackfilledSchema() {
+            return flyway -> {
+                DataSource dataSource = flyway.getConfiguration().getDataSource();
+                new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline.sql")).execute(dataSource);
+                JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+                insertUsers(jdbc);
+                jdbc.execute("alter table mukando_users add column roles_mask integer default 0 not null");
+                jdbc.execute("update mukando_users set roles_mask = case id when 1 then 3 else 64 end");
+                jdbc.execute("alter table user_roles rename to user_roles_legacy");
+                jdbc.execute("alter table mukando_users add constraint uk_users_username unique (username)");
+                jdbc.execute("create table refresh_tokens (id bigint not null auto_increment, created_by varchar(255),"
+                    + " created_date datetime(6), last_modified_by varchar(255), last_modified_date datetime(6),"
+                    + " version integer, deleted bit not null, token_hash varchar(64) not null unique,"
+                    + " user_id bigint not null, expiry_date datetime(6) not null, primary key (id))");
+                jdbc.execute("create index idx_refresh_tokens_user_id on refresh_tokens (user_id)");
+                jdbc.execute("create index idx_refresh_tokens_expiry_date on refresh_tokens (expiry_date)");
+                flyway.migrate();
+            };
+        }
+    }
+
+    private static void insertUsers(JdbcTemplate jdbc) {
+        jdbc.execute("insert into mukando_users (id, username, password, email, enabled, deleted) values"
+            + " (1, 'tendai', 'x', 'tendai@example.com', true, false),"
+            + " (2, 'chipo', 'x', 'chipo@example.com', true, false)");
+        // The baseline table has no key: the duplicate must not carry into the ADMIN bit
+        jdbc.execute("insert into user_roles (user_id, roles) values"
+            + " (1, 'USER'), (1, 'USER'), (1, 'ADMIN'), (2, 'MEMBER')");
+    }
+}
@@ -0,0 +1,100 @@
+package com.mukando.authservice.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mukando.authservice.model.User;
+import com.mukando.commons.security.JwtPrincipal;
+import com.mukando.commons.security.Role;
+import com.mukando.commons.security.TokenDenyList;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+class JwtUtilTest {
+
+    private final JwtKeyRing keyRing = new JwtKeyRing(new JwtSigningProperties());
+    private final JwtUtil jwtUtil = new JwtUtil(keyRing, new ObjectMapper(),
+        "MrDCKQyMSWR8Di/nYRXZPBLR+HCbCv+KvSCDu47px80=", 60_000);
+
+    @Test
+    void issuesCompactClaims() {
+        User user = User.builder()
+            .id(42L)
+            .username("chipo \"dube\"")
+            .roles(Set.of(Role.USER, Role.TREASURER))
+            .build();
+
+        Claims claims = jwtUtil.parseToken(jwtUtil.generateToken(user));
+
+        assertThat(claims).containsEntry("v", 2).containsEntry("uid", 42).containsEntry("rm", 33)
+            .doesNotContainKeys("userId", "roles");
+        assertThat(claims.getSubject()).isEqualTo("chipo \"dube\"");
+        assertThat(claims.getId()).isNotNull();
+        assertThat(claims).containsKey("ims").doesNotContainKey("iat");
+        assertPrincipal(JwtPrincipal.fromClaims(claims, Role.MASK));
+    }
+
+    @Test
+    void stillAcceptsLegacyClaims() {
+        String legacy = Jwts.builder()
+            .setHeaderParam("kid", keyRing.getActiveKid())
+            .setClaims(Map.of("userId", 42L, "roles", "USER,TREASURER"))
+            .setSubject("chipo")
+            .setId("legacy-jti")
+            .setIssuedAt(new Date())
+            .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+            .signWith(keyRing.getSigningKey(), SignatureAlgorithm.RS256)
+            .compact();
+
+        assertThat(jwtUtil.extractUserId(legacy)).isEqualTo(42L);
+        assertThat(jwtUtil.extractRoles(legacy)).isEqualTo("TREASURER,USER");
+        assertPrincipal(JwtPrincipal.fromClaims(jwtUtil.parseToken(legacy), Role.MASK));
+    }
+
+    @Test
+    void watermarksCompareMillisecondIssueTimes() {
+        User user = User.builder().id(42L).username("chipo").roles(Set.of(Role.USER)).build();
+        JwtPrincipal principal = JwtPrincipal.fromClaims(jwtUtil.parseToken(jwtUtil.generateToken(user)), Role.MASK);
+
+        TokenDenyList issuedAtWatermark = new TokenDenyList(60_000);
+        issuedAtWatermark.revokeIssuedBefore(42L, principal.getIssuedAtMillis());
+        TokenDenyList laterWatermark = new TokenDenyList(60_000);
+        laterWatermark.revokeIssuedBefore(42L, principal.getIssuedAtMillis() + 1);
+
+        assertThat(principal.isRevoked(issuedAtWatermark)).isFalse();
+        assertThat(principal.isRevoked(laterWatermark)).isTrue();
+    }
+
+    @Test
+    void legacyTokensCountAsIssuedAtTheStartOfTheirSecond() {
+        long issuedAt = System.currentTimeMillis() / 1000 * 1000;
+        String legacy = Jwts.builder()
+            .setHeaderParam("kid", keyRing.getActiveKid())
+            .setClaims(Map.of("userId", 42L, "roles", "USER"))
+            .setSubject("chipo")
+            .setIssuedAt(new Date(issuedAt + 999))
+            .setExpiration(new Date(issuedAt + 60_000))
+            .signWith(keyRing.getSigningKey(), SignatureAlgorithm.RS256)
+            .compact();
+        TokenDenyList denyList = new TokenDenyList(60_000);
+        denyList.revokeIssuedBefore(42L, issuedAt + 1);
+
+        assertThat(JwtPrincipal.fromClaims(jwtUtil.parseToken(legacy), Role.MASK).isRevoked(denyList)).isTrue();
+    }
+
+    private static void assertPrincipal(JwtPrincipal principal) {
+        assertThat(principal.getId()).isEqualTo(42L);
+        assertThat(principal.getRoles()).isEqualTo("TREASURER,USER");
+        assertThat(principal.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+            .containsExactly("USER", "TREASURER");
+    }
+}
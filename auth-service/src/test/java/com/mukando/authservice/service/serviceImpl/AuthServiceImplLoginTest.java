@@ -0,0 +1,146 @@
+package com.mukando.authservice.service.serviceImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.mukando.authservice.dto.LoginRequest;
+import com.mukando.authservice.dto.LoginResponse;
+import com.mukando.authservice.model.User;
+import com.mukando.authservice.repository.UserRepository;
+import com.mukando.authservice.security.JwtUtil;
+import com.mukando.authservice.security.LoginAttemptLimiter;
+import com.mukando.authservice.service.RefreshTokenService;
+import com.mukando.authservice.service.TokenRevocationService;
+import com.mukando.commons.exception.InvalidCredentialsException;
+import com.mukando.commons.exception.TooManyRequestsException;
+import com.mukando.commons.outbox.OutboxPublisher;
+import com.mukando.commons.security.PasswordEncoders;
+import com.mukando.commons.security.Role;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class AuthServiceImplLoginTest {
+
+    private static final String CLIENT_IP = "203.0.113.7";
+
+    @Configuration
+    @EntityScan(basePackageClasses = User.class)
+    @EnableJpaRepositories(basePackageClasses = UserRepository.class)
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    private final JwtUtil jwtUtil = mock(JwtUtil.class);
+    private final RefreshTokenService refreshTokenService = mock(RefreshTokenService.class);
+
+    private final LoginAttemptLimiter loginAttemptLimiter = new LoginAttemptLimiter(
+        Duration.ofMinutes(15), Duration.ofMinutes(15), 3, 50, 1000, new SimpleMeterRegistry());
+
+    private AuthServiceImpl authService;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        authService = new AuthServiceImpl(userRepository, passwordEncoder, jwtUtil,
+            mock(OutboxPublisher.class), refreshTokenService, loginAttemptLimiter,
+            mock(TokenRevocationService.class));
+
+        entityManager.persist(User.builder()
+            .username("tendai")
+            .email("tendai@example.com")
+            .password(passwordEncoder.encode("s3cret"))
+            .roles(Set.of(Role.USER, Role.TREASURER))
+            .enabled(true)
+            .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        when(jwtUtil.generateToken(any(User.class))).thenReturn("access-token");
+        when(refreshTokenService.issue(any(User.class))).thenReturn("refresh-token");
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void loginLoadsUserAndRolesWithOneStatement() {
+        LoginResponse response = authService.login(new LoginRequest("tendai", "s3cret"), CLIENT_IP);
+
+        assertThat(response.token()).isEqualTo("access-token");
+        assertThat(response.roles()).containsExactlyInAnyOrder(Role.USER, Role.TREASURER);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void loginWithWrongPasswordIsRejected() {
+        assertThatThrownBy(() -> authService.login(new LoginRequest("tendai", "wrong"), CLIENT_IP))
+            .isInstanceOf(InvalidCredentialsException.class);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void loginRehashesPasswordStoredBelowCurrentCost() {
+        PasswordEncoder stronger = PasswordEncoders.bcrypt(5);
+        AuthServiceImpl upgradingService = new AuthServiceImpl(userRepository, stronger, jwtUtil,
+            mock(OutboxPublisher.class), refreshTokenService, loginAttemptLimiter,
+            mock(TokenRevocationService.class));
+
+        upgradingService.login(new LoginRequest("tendai", "s3cret"), CLIENT_IP);
+        entityManager.flush();
+        entityManager.clear();
+
+        String storedHash = userRepository.findByUsername("tendai").orElseThrow().getPassword();
+        assertThat(storedHash).startsWith("{bcrypt}$2a$05$");
+        assertThat(stronger.upgradeEncoding(storedHash)).isFalse();
+        assertThat(stronger.matches("s3cret", storedHash)).isTrue();
+    }
+
+    @Test
+    void loginWithUnknownUserIsRejected() {
+        assertThatThrownBy(() -> authService.login(new LoginRequest("nobody", "s3cret"), CLIENT_IP))
+            .isInstanceOf(InvalidCredentialsException.class);
+    }
+
+    @Test
+    void repeatedFailuresLockTheUsernameBeforeAnyLookup() {
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> authService.login(new LoginRequest("tendai", "wrong"), CLIENT_IP))
+                .isInstanceOf(InvalidCredentialsException.class);
+        }
+        statistics.clear();
+
+        assertThatThrownBy(() -> authService.login(new LoginRequest("TENDAI", "s3cret"), "198.51.100.1"))
+            .isInstanceOf(TooManyRequestsException.class);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+}
@@ -0,0 +1,146 @@
+package com.mukando.authservice.service.serviceImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mukando.authservice.dto.RegisterRequest;
+import com.mukando.authservice.model.User;
+import com.mukando.authservice.repository.UserRepository;
+import com.mukando.authservice.security.JwtUtil;
+import com.mukando.authservice.security.LoginAttemptLimiter;
+import com.mukando.authservice.service.RefreshTokenService;
+import com.mukando.authservice.service.TokenRevocationService;
+import com.mukando.commons.exception.GlobalExceptionHandler;
+import com.mukando.commons.exception.MessageRes;
+import com.mukando.commons.outbox.OutboxPublisher;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Registrations commit for real so concurrent inserts meet the unique constraints
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AuthServiceImplRegistrationTest {
+
+    private static final int CONCURRENT_REGISTRATIONS = 8;
+
+    @Configuration
+    @EntityScan(basePackageClasses = User.class)
+    @EnableJpaRepositories(basePackageClasses = UserRepository.class)
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final GlobalExceptionHandler exceptionHandler = new GlobalExceptionHandler();
+
+    private AuthServiceImpl authService;
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        authService = new AuthServiceImpl(userRepository, new BCryptPasswordEncoder(4), mock(JwtUtil.class),
+            mock(OutboxPublisher.class), mock(RefreshTokenService.class),
+            new LoginAttemptLimiter(Duration.ofMinutes(15), Duration.ofMinutes(15), 5, 50, 1000,
+                new SimpleMeterRegistry()),
+            mock(TokenRevocationService.class));
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentRegistrationsOfOneUsernameLeaveOneUser() throws Exception {
+        List<Throwable> failures = registerConcurrently(i -> request("chipo", "chipo" + i + "@example.com"));
+
+        assertThat(userRepository.count()).isEqualTo(1);
+        assertThat(failures).hasSize(CONCURRENT_REGISTRATIONS - 1);
+        for (Throwable failure : failures) {
+            assertConflict(failure, "Username already taken");
+        }
+    }
+
+    @Test
+    void concurrentRegistrationsOfOneEmailLeaveOneUser() throws Exception {
+        List<Throwable> failures = registerConcurrently(i -> request("chipo" + i, "chipo@example.com"));
+
+        assertThat(userRepository.count()).isEqualTo(1);
+        assertThat(failures).hasSize(CONCURRENT_REGISTRATIONS - 1);
+        for (Throwable failure : failures) {
+            assertConflict(failure, "Email already registered");
+        }
+    }
+
+    private List<Throwable> registerConcurrently(IntFunction<RegisterRequest> requests)
+            throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REGISTRATIONS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REGISTRATIONS; i++) {
+            RegisterRequest request = requests.apply(i);
+            Callable<Object> registration = () -> {
+                start.await();
+                return transaction.execute(status -> authService.register(request));
+            };
+            results.add(executor.submit(registration));
+        }
+        start.countDown();
+
+        List<Throwable> failures = new ArrayList<>();
+        for (Future<?> result : results) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                failures.add(e.getCause());
+            }
+        }
+        executor.shutdown();
+        return failures;
+    }
+
+    private void assertConflict(Throwable failure, String message) {
+        assertThat(failure).isInstanceOf(DataIntegrityViolationException.class);
+        ResponseEntity<MessageRes> response =
+            exceptionHandler.handleDataIntegrityViolation((DataIntegrityViolationException) failure);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody().getMessage()).isEqualTo(message);
+    }
+
+    private static RegisterRequest request(String username, String email) {
+        return new RegisterRequest(username, "s3cret", email, "Chipo", "Dube", null, null, null, null, null);
+    }
+}
@@ -0,0 +1,84 @@
+package com.mukando.commons.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread read-your-writes scope. Inside a scope, read-only transactions stay
+ * on the primary once a read-write transaction has taken a connection, or from the
+ * start if the scope was opened pinned because the client wrote shortly before, so
+ * they never miss a write the replica has not applied yet. The scope's write
+ * callback runs at the first write, for the caller to remember it beyond the
+ * scope. Outside a scope (scheduled jobs, async work) read-only transactions
+ * go to the replica, unless run through {@link #primary}, which background work
+ * that writes based on what it read must do.
+ */
+public final class ReadYourWrites {
+
+    private static final class Scope {
+        private final Runnable onFirstWrite;
+        private boolean pinned;
+        private boolean wrote;
+
+        Scope(boolean pinned, Runnable onFirstWrite) {
+            this.pinned = pinned;
+            this.onFirstWrite = onFirstWrite;
+        }
+    }
+
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static void begin() {
+        begin(false, null);
+    }
+
+    public static void begin(boolean pinned, Runnable onFirstWrite) {
+        SCOPE.set(new Scope(pinned, onFirstWrite));
+    }
+
+    public static void end() {
+        SCOPE.remove();
+    }
+
+    /**
+     * Runs {@code work} with its read-only transactions on the primary, inside the
+     * current scope if there is one or in a pinned scope of its own otherwise.
+     */
+    public static <T> T primary(Supplier<T> work) {
+        Scope outer = SCOPE.get();
+        if (outer != null) {
+            boolean wasPinned = outer.pinned;
+            outer.pinned = true;
+            try {
+                return work.get();
+            } finally {
+                outer.pinned = wasPinned || outer.wrote;
+            }
+        }
+        begin(true, null);
+        try {
+            return work.get();
+        } finally {
+            end();
+        }
+    }
+
+    public static boolean isPinned() {
+        Scope scope = SCOPE.get();
+        return scope != null && scope.pinned;
+    }
+
+    static void recordWrite() {
+        Scope scope = SCOPE.get();
+        if (scope == null || scope.wrote) {
+            return;
+        }
+        scope.pinned = true;
+        scope.wrote = true;
+        if (scope.onFirstWrite != null) {
+            scope.onFirstWrite.run();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.mukando.commons.datasource;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Opens a {@link ReadYourWrites} scope for each request, pinned to the primary if
+ * the client wrote within the replication-lag {@code window}. A request that
+ * writes returns the time of its write as the {@link #LAST_WRITE_COOKIE} cookie
+ * and the {@link #LAST_WRITE_HEADER} header; browsers send the cookie back on
+ * their own, other clients echo the header. The window is counted from the start
+ * of the write, so it must cover the transaction as well as the replica's lag.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String LAST_WRITE_HEADER = "X-Last-Write";
+    public static final String LAST_WRITE_COOKIE = "last_write";
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        ReadYourWrites.begin(wroteRecently(request), () -> rememberWrite(response));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.end();
+        }
+    }
+
+    private boolean wroteRecently(HttpServletRequest request) {
+        String lastWrite = request.getHeader(LAST_WRITE_HEADER);
+        if (lastWrite == null) {
+            Cookie cookie = WebUtils.getCookie(request, LAST_WRITE_COOKIE);
+            lastWrite = cookie == null ? null : cookie.getValue();
+        }
+        if (lastWrite == null) {
+            return false;
+        }
+        try {
+            // Bounded both ways, so a forged far-future value cannot pin a client for good
+            return Math.abs(System.currentTimeMillis() - Long.parseLong(lastWrite)) < window.toMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    // Runs at the first write, before the controller has written the response
+    private void rememberWrite(HttpServletResponse response) {
+        if (response.isCommitted()) {
+            return;
+        }
+        String now = String.valueOf(System.currentTimeMillis());
+        response.setHeader(LAST_WRITE_HEADER, now);
+        response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(LAST_WRITE_COOKIE, now)
+            .path("/")
+            .maxAge(window)
+            .httpOnly(true)
+            .sameSite("Lax")
+            .build()
+            .toString());
+    }
+}
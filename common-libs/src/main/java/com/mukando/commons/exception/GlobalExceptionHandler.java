@@ -1,11 +1,17 @@
 package com.mukando.commons.exception;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestController;
@@ -24,6 +30,32 @@ public class GlobalExceptionHandler {
         return buildResponse(ex.getMessage(), HttpStatus.CONFLICT);
     }
 
+    /**
+     * Inserts rely on the named unique constraints (uk_users_username, uk_users_email,
+     * uk_users_phone_number) instead of checking first; a violation is reported as the
+     * conflict a pre-check would have raised.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<MessageRes> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        ConstraintViolationException violation = findConstraintViolation(ex);
+        if (violation == null || violation.getKind() != ConstraintViolationException.ConstraintKind.UNIQUE) {
+            logger.warn("Data integrity violation: {}", ex.getMostSpecificCause().getMessage());
+            return buildResponse("Request violates a data constraint", HttpStatus.BAD_REQUEST);
+        }
+        String constraint = violation.getConstraintName() == null
+            ? "" : violation.getConstraintName().toLowerCase(Locale.ROOT);
+        if (constraint.contains("username")) {
+            return handleUsernameAlreadyExist(new UsernameAlreadyExistException("Username already taken"));
+        }
+        if (constraint.contains("email")) {
+            return handleEmailAlreadyExist(new EmailAlreadyExistException("Email already registered"));
+        }
+        if (constraint.contains("phone")) {
+            return buildResponse("Phone number already registered", HttpStatus.CONFLICT);
+        }
+        return buildResponse("Request conflicts with existing data", HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<MessageRes> handleResourceNotFound(ResourceNotFoundException ex) {
         return buildResponse(ex.getMessage(), HttpStatus.NOT_FOUND);
@@ -48,8 +80,47 @@ public class GlobalExceptionHandler {
         return buildResponse(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(RefreshTokenExpiredException.class)
+    public ResponseEntity<MessageRes> handleRefreshTokenExpired(RefreshTokenExpiredException ex) {
+        return buildResponse(ex.getMessage(), HttpStatus.UNAUTHORIZED);
+    }
+
+    @ExceptionHandler(JobAlreadyRunningException.class)
+    public ResponseEntity<MessageRes> handleJobAlreadyRunning(JobAlreadyRunningException ex) {
+        return buildResponse(ex.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<MessageRes> handleServiceUnavailable(ServiceUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new MessageRes(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE.value(), LocalDateTime.now()));
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<MessageRes> handleTooManyRequests(TooManyRequestsException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new MessageRes(ex.getMessage(), HttpStatus.TOO_MANY_REQUESTS.value(), LocalDateTime.now()));
+    }
+
+    @ExceptionHandler(org.springframework.security.access.AccessDeniedException.class)
+    public ResponseEntity<MessageRes> handleSecurityAccessDenied(
+            org.springframework.security.access.AccessDeniedException ex) {
+        return buildResponse("Access denied", HttpStatus.FORBIDDEN);
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<MessageRes> handleUnreadableMessage(HttpMessageNotReadableException ex) {
+        return buildResponse("Malformed request body", HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<MessageRes> handleGenericException(Exception ex) {
+        // Spring MVC exceptions (validation, missing parameters, ...) already know their status
+        if (ex instanceof ErrorResponse errorResponse) {
+            return buildResponse(ex.getMessage(), HttpStatus.valueOf(errorResponse.getStatusCode().value()));
+        }
         logger.error("Unhandled exception occurred", ex);
         return buildResponse("Internal server error", HttpStatus.INTERNAL_SERVER_ERROR);
     }
@@ -58,4 +129,13 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(status)
                 .body(new MessageRes(message, status.value(), LocalDateTime.now()));
     }
-}
\ No newline at end of file
+
+    private static ConstraintViolationException findConstraintViolation(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,7 @@
+package com.mukando.commons.exception;
+
+public class JobAlreadyRunningException extends RuntimeException {
+    public JobAlreadyRunningException(String message) {
+        super(message);
+    }
+}
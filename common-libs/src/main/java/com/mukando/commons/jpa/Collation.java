@@ -0,0 +1,28 @@
+package com.mukando.commons.jpa;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Java-side keys for values the database compares under MySQL's accent- and
+ * case-insensitive {@code utf8mb4_0900_ai_ci} collation, such as usernames and
+ * emails: compatibility forms decomposed, accents dropped and case folded (so "ß"
+ * meets "ss"). Values equal in MySQL get the same key; a few that MySQL tells
+ * apart, such as ones differing in surrounding spaces, share one too.
+ */
+public final class Collation {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private Collation() {
+    }
+
+    public static String key(String value) {
+        if (value == null) {
+            return null;
+        }
+        String decomposed = Normalizer.normalize(value.trim(), Normalizer.Form.NFKD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+    }
+}
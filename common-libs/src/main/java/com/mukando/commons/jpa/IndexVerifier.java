@@ -0,0 +1,128 @@
+package com.mukando.commons.jpa;
+
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+
+import com.mukando.commons.jpa.JdbcSchema.TableIndex;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.metamodel.EntityType;
+
+/**
+ * Fails startup when an index declared on an entity is missing from the database.
+ * Migrations own the schema; the {@code @Table} indexes and unique constraints and
+ * {@code @Column(unique = true)} columns record what the repository queries rely on.
+ * Any index whose leading columns are the declared ones counts, whatever its name,
+ * and declared-unique columns need a unique index on exactly those columns.
+ */
+public class IndexVerifier implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexVerifier.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSource dataSource;
+
+    public IndexVerifier(EntityManagerFactory entityManagerFactory, DataSource dataSource) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        List<RequiredIndex> required = requiredIndexes();
+        List<String> missing = new ArrayList<>();
+        Map<String, List<TableIndex>> existingByTable = new HashMap<>();
+        try (Connection connection = dataSource.getConnection()) {
+            JdbcSchema schema = new JdbcSchema(connection);
+            for (RequiredIndex index : required) {
+                List<TableIndex> existing = existingByTable.get(index.table());
+                if (existing == null) {
+                    existing = schema.indexes(index.table());
+                    existingByTable.put(index.table(), existing);
+                }
+                if (existing.stream().noneMatch(index::isSatisfiedBy)) {
+                    missing.add(index.toString());
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Missing database indexes, check the migrations: " + missing);
+        }
+        log.info("Verified {} indexes on {} tables", required.size(), existingByTable.size());
+    }
+
+    private List<RequiredIndex> requiredIndexes() {
+        List<RequiredIndex> required = new ArrayList<>();
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            Class<?> type = entity.getJavaType();
+            Table table = type.getAnnotation(Table.class);
+            if (table == null || table.name().isEmpty()) {
+                continue;
+            }
+            for (Index index : table.indexes()) {
+                List<String> columns = Arrays.stream(index.columnList().split(","))
+                    // "created_date desc" -> created_date
+                    .map(column -> column.trim().split("\\s+")[0])
+                    .toList();
+                required.add(new RequiredIndex(table.name(), columns, index.unique()));
+            }
+            for (UniqueConstraint constraint : table.uniqueConstraints()) {
+                required.add(new RequiredIndex(table.name(), List.of(constraint.columnNames()), true));
+            }
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    Column column = field.getAnnotation(Column.class);
+                    if (column != null && column.unique()) {
+                        String name = column.name().isEmpty() ? snakeCase(field.getName()) : column.name();
+                        required.add(new RequiredIndex(table.name(), List.of(name), true));
+                    }
+                }
+            }
+        }
+        return required;
+    }
+
+    private static String snakeCase(String name) {
+        return name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT);
+    }
+
+    private record RequiredIndex(String table, List<String> columns, boolean unique) {
+
+        boolean isSatisfiedBy(TableIndex index) {
+            if (index.columns().size() < columns.size() || (unique && !index.unique())) {
+                return false;
+            }
+            if (unique && index.columns().size() != columns.size()) {
+                return false;
+            }
+            for (int i = 0; i < columns.size(); i++) {
+                if (!columns.get(i).equalsIgnoreCase(index.columns().get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return (unique ? "unique " : "") + table + " (" + String.join(", ", columns) + ")";
+        }
+    }
+}
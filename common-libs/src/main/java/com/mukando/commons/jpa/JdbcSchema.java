@@ -0,0 +1,169 @@
+package com.mukando.commons.jpa;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Schema lookups for migrations that must cope with databases in more than one
+ * state, and for {@link IndexVerifier}. Works on MySQL and on H2, which upper-cases
+ * unquoted names: tables are looked up as written and upper-cased, and constraint
+ * names come from the standard {@code information_schema} views.
+ */
+public class JdbcSchema {
+
+    private final Connection connection;
+
+    public JdbcSchema(Connection connection) {
+        this.connection = connection;
+    }
+
+    public boolean hasTable(String table) throws SQLException {
+        return resolve(table) != null;
+    }
+
+    public boolean hasColumn(String table, String column) throws SQLException {
+        String name = resolve(table);
+        if (name == null) {
+            return false;
+        }
+        try (ResultSet columns = connection.getMetaData().getColumns(connection.getCatalog(), null, name, null)) {
+            while (columns.next()) {
+                if (column.equalsIgnoreCase(columns.getString("COLUMN_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indexes of {@code table} by name, including those backing primary keys and
+     * unique constraints; empty if the table does not exist.
+     */
+    public List<TableIndex> indexes(String table) throws SQLException {
+        String name = resolve(table);
+        if (name == null) {
+            return List.of();
+        }
+        Map<String, TreeMap<Integer, String>> columnsByIndex = new LinkedHashMap<>();
+        Map<String, Boolean> uniqueByIndex = new LinkedHashMap<>();
+        try (ResultSet rows = connection.getMetaData().getIndexInfo(connection.getCatalog(), null, name, false, true)) {
+            while (rows.next()) {
+                String indexName = rows.getString("INDEX_NAME");
+                if (indexName == null || rows.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
+                    continue;
+                }
+                columnsByIndex.computeIfAbsent(indexName, key -> new TreeMap<>())
+                    .put((int) rows.getShort("ORDINAL_POSITION"), rows.getString("COLUMN_NAME"));
+                uniqueByIndex.put(indexName, !rows.getBoolean("NON_UNIQUE"));
+            }
+        }
+        List<TableIndex> indexes = new ArrayList<>();
+        columnsByIndex.forEach((indexName, columns) ->
+            indexes.add(new TableIndex(indexName, List.copyOf(columns.values()), uniqueByIndex.get(indexName))));
+        return indexes;
+    }
+
+    public boolean hasIndex(String table, String index) throws SQLException {
+        return indexes(table).stream().anyMatch(existing -> existing.name().equalsIgnoreCase(index));
+    }
+
+    /**
+     * Names of the constraints of {@code type} (UNIQUE, FOREIGN KEY, ...) on
+     * {@code table}, each with its columns in key order.
+     */
+    public Map<String, List<String>> constraints(String table, String type) throws SQLException {
+        Map<String, List<String>> constraints = new LinkedHashMap<>();
+        String sql = "select tc.constraint_name, kcu.column_name"
+            + " from information_schema.table_constraints tc"
+            + " join information_schema.key_column_usage kcu"
+            + " on kcu.constraint_schema = tc.constraint_schema and kcu.constraint_name = tc.constraint_name"
+            + " and kcu.table_name = tc.table_name"
+            + " where upper(tc.table_schema) = upper(?) and upper(tc.table_name) = upper(?) and tc.constraint_type = ?"
+            + " order by tc.constraint_name, kcu.ordinal_position";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, currentSchema());
+            statement.setString(2, table);
+            statement.setString(3, type);
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    constraints.computeIfAbsent(rows.getString(1), key -> new ArrayList<>()).add(rows.getString(2));
+                }
+            }
+        }
+        return constraints;
+    }
+
+    public void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    /** Creates the index unless one of that name exists. */
+    public void createIndexIfMissing(String table, String index, String columns) throws SQLException {
+        if (!hasIndex(table, index)) {
+            execute("create index " + index + " on " + table + " (" + columns + ")");
+        }
+    }
+
+    /** Adds the unique constraint unless one of that name exists. */
+    public void addUniqueConstraintIfMissing(String table, String constraint, String columns) throws SQLException {
+        if (constraints(table, "UNIQUE").keySet().stream().noneMatch(constraint::equalsIgnoreCase)) {
+            execute("alter table " + table + " add constraint " + constraint + " unique (" + columns + ")");
+        }
+    }
+
+    /**
+     * Makes {@code constraint} the only unique constraint on exactly {@code column},
+     * replacing others on the same column, such as the ones ddl-auto named after a
+     * hash. The old constraint is dropped first, because H2 would otherwise reuse
+     * its index and report violations under the old name; if a foreign key on the
+     * table needs the column indexed, the new constraint is added first instead.
+     */
+    public void renameUniqueConstraint(String table, String column, String constraint) throws SQLException {
+        boolean foreignKeyColumn = constraints(table, "FOREIGN KEY").values().stream()
+            .anyMatch(columns -> columns.stream().anyMatch(column::equalsIgnoreCase));
+        if (foreignKeyColumn) {
+            addUniqueConstraintIfMissing(table, constraint, column);
+        }
+        for (Map.Entry<String, List<String>> existing : constraints(table, "UNIQUE").entrySet()) {
+            if (!existing.getKey().equalsIgnoreCase(constraint)
+                    && existing.getValue().size() == 1 && existing.getValue().get(0).equalsIgnoreCase(column)) {
+                execute("alter table " + table + " drop constraint " + existing.getKey());
+            }
+        }
+        addUniqueConstraintIfMissing(table, constraint, column);
+    }
+
+    // MySQL calls its schemas catalogs and reports no schema
+    private String currentSchema() throws SQLException {
+        String schema = connection.getSchema();
+        return schema != null ? schema : connection.getCatalog();
+    }
+
+    private String resolve(String table) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        for (String name : new String[] {table, table.toUpperCase(Locale.ROOT)}) {
+            try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, name, new String[] {"TABLE"})) {
+                if (tables.next()) {
+                    return name;
+                }
+            }
+        }
+        return null;
+    }
+
+    public record TableIndex(String name, List<String> columns, boolean unique) {
+    }
+}
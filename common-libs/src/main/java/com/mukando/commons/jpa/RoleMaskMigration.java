@@ -0,0 +1,59 @@
+package com.mukando.commons.jpa;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Moves roles from the {@code user_roles} collection table into the
+ * {@code mukando_users.roles_mask} column, bit n = role ordinal n, and keeps the
+ * old rows in {@code user_roles_legacy} until the move has been checked. The
+ * legacy table is a copy without a foreign key, so it never keeps a user from
+ * being deleted.
+ * <p>
+ * Databases where the startup backfill that preceded migrations already ran
+ * have the column and no {@code user_roles}, only a renamed copy that still has
+ * its foreign key; for those only the foreign key is dropped.
+ */
+public abstract class RoleMaskMigration extends BaseJavaMigration {
+
+    private static final String USERS = "mukando_users";
+    private static final String ROLES = "user_roles";
+    private static final String LEGACY = "user_roles_legacy";
+
+    private final Class<? extends Enum<?>> roleType;
+
+    protected RoleMaskMigration(Class<? extends Enum<?>> roleType) {
+        this.roleType = roleType;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        JdbcSchema schema = new JdbcSchema(context.getConnection());
+        if (!schema.hasColumn(USERS, "roles_mask")) {
+            schema.execute("alter table " + USERS + " add column roles_mask integer default 0 not null");
+        }
+        if (schema.hasTable(ROLES)) {
+            // bit_or, not sum: user_roles has no key, so a role may be listed twice for a user
+            schema.execute("update " + USERS + " set roles_mask = (select coalesce(bit_or(" + bitCase() + "), 0)"
+                + " from " + ROLES + " r where r.user_id = " + USERS + ".id)");
+            if (schema.hasTable(LEGACY)) {
+                schema.execute("insert into " + LEGACY + " (user_id, roles) select user_id, roles from " + ROLES);
+            } else {
+                schema.execute("create table " + LEGACY + " as select user_id, roles from " + ROLES);
+            }
+            schema.execute("drop table " + ROLES);
+        }
+        for (String foreignKey : schema.constraints(LEGACY, "FOREIGN KEY").keySet()) {
+            schema.execute("alter table " + LEGACY + " drop constraint " + foreignKey);
+        }
+    }
+
+    // case r.roles when 'USER' then 1 when 'ADMIN' then 2 ... else 0 end
+    private String bitCase() {
+        StringBuilder sql = new StringBuilder("case r.roles");
+        for (Enum<?> role : roleType.getEnumConstants()) {
+            sql.append(" when '").append(role.name()).append("' then ").append(1 << role.ordinal());
+        }
+        return sql.append(" else 0 end").toString();
+    }
+}
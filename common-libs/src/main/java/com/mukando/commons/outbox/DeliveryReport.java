@@ -0,0 +1,15 @@
+package com.mukando.commons.outbox;
+
+import java.util.Map;
+
+/**
+ * The receiver's answer to a delivery: the events it did not apply, by event id,
+ * with the reason. Events missing from it were applied or had been already.
+ */
+public record DeliveryReport(
+    Map<String, String> rejected
+) {
+    public static DeliveryReport empty() {
+        return new DeliveryReport(Map.of());
+    }
+}
@@ -0,0 +1,9 @@
+package com.mukando.commons.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+public interface InboxHandler {
+    String eventType();
+
+    void handle(JsonNode payload);
+}
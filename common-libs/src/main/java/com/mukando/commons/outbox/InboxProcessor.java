@@ -0,0 +1,84 @@
+package com.mukando.commons.outbox;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mukando.commons.exception.BadRequestException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies events received from a peer's outbox. Each event runs in its own
+ * transaction together with the insert of its id into {@code processed_events},
+ * so a redelivered event is skipped and a duplicate delivered concurrently
+ * fails on the primary key and rolls back. An event that fails is reported
+ * back with the later events for its aggregate, which are not attempted so they
+ * cannot overtake it; events for other aggregates still apply.
+ */
+@Slf4j
+public class InboxProcessor {
+
+    private final ProcessedEventRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, InboxHandler> handlers;
+    private final Duration retention;
+
+    public InboxProcessor(ProcessedEventRepository repository, TransactionTemplate transactionTemplate,
+            List<InboxHandler> handlers, Duration retention) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.handlers = handlers.stream().collect(Collectors.toMap(InboxHandler::eventType, Function.identity()));
+        this.retention = retention;
+    }
+
+    public DeliveryReport receive(List<OutboxMessage> messages) {
+        Map<String, String> rejected = new LinkedHashMap<>();
+        Set<String> blockedAggregates = new HashSet<>();
+        for (OutboxMessage message : messages) {
+            if (blockedAggregates.contains(message.aggregateId())) {
+                rejected.put(message.eventId(), "Blocked by an earlier event for " + message.aggregateId());
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> apply(message));
+            } catch (RuntimeException e) {
+                log.warn("Event {} ({}) for {} failed: {}",
+                    message.eventId(), message.eventType(), message.aggregateId(), e.toString());
+                rejected.put(message.eventId(), e.toString());
+                blockedAggregates.add(message.aggregateId());
+            }
+        }
+        return new DeliveryReport(rejected);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.inbox.cleanup-interval:3600000}")
+    public void purgeProcessed() {
+        Integer purged = transactionTemplate.execute(status ->
+            repository.deleteProcessedBefore(LocalDateTime.now().minus(retention)));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} processed event ids", purged);
+        }
+    }
+
+    private void apply(OutboxMessage message) {
+        if (repository.existsById(message.eventId())) {
+            return;
+        }
+        InboxHandler handler = handlers.get(message.eventType());
+        if (handler == null) {
+            throw new BadRequestException("Unknown event type: " + message.eventType());
+        }
+        repository.saveAndFlush(new ProcessedEvent(message.eventId()));
+        handler.handle(message.payload());
+    }
+}
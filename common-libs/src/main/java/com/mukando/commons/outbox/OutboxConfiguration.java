@@ -0,0 +1,53 @@
+package com.mukando.commons.outbox;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Outbox and inbox wiring for a service. The importing application must also
+ * include this package in its {@code @EntityScan} and {@code @EnableJpaRepositories},
+ * define an {@link OutboxTransport} to its peer and any {@link InboxHandler}s,
+ * and enable scheduling.
+ */
+@Configuration
+public class OutboxConfiguration {
+
+    @Bean
+    public OutboxPublisher outboxPublisher(OutboxEventRepository repository, ObjectMapper objectMapper) {
+        return new OutboxPublisher(repository, objectMapper);
+    }
+
+    @Bean
+    public OutboxRelay outboxRelay(
+            OutboxEventRepository repository,
+            OutboxTransport transport,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${outbox.relay.batch-size:100}") int batchSize,
+            @Value("${outbox.relay.max-attempts:20}") int maxAttempts,
+            @Value("${outbox.relay.max-backoff:5m}") Duration maxBackoff,
+            @Value("${outbox.relay.claim-timeout:2m}") Duration claimTimeout,
+            MeterRegistry meterRegistry) {
+        return new OutboxRelay(repository, transport, new TransactionTemplate(transactionManager), objectMapper,
+            batchSize, maxAttempts, maxBackoff, claimTimeout, meterRegistry);
+    }
+
+    @Bean
+    public InboxProcessor inboxProcessor(
+            ProcessedEventRepository repository,
+            PlatformTransactionManager transactionManager,
+            List<InboxHandler> handlers,
+            @Value("${outbox.inbox.retention:7d}") Duration retention) {
+        return new InboxProcessor(repository, new TransactionTemplate(transactionManager), handlers, retention);
+    }
+}
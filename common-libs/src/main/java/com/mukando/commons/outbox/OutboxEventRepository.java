@@ -0,0 +1,35 @@
+package com.mukando.commons.outbox;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.mukando.commons.jpa.BaseDao;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface OutboxEventRepository extends BaseDao<OutboxEvent, Long> {
+
+    // The oldest pending event of each aggregate, if due. Only these can be claimed, so a
+    // relay that claims one owns the aggregate's later events until it has dealt with it.
+    // FOR UPDATE SKIP LOCKED: relays on other instances take the next aggregates instead of waiting
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from OutboxEvent e where e.deleted = false and e.nextAttemptAt <= :now"
+        + " and not exists (select p.id from OutboxEvent p"
+        + " where p.aggregateId = e.aggregateId and p.deleted = false and p.id < e.id)"
+        + " order by e.id")
+    List<OutboxEvent> findClaimableHeads(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("select e from OutboxEvent e where e.deleted = false and e.aggregateId in :aggregateIds order by e.id")
+    List<OutboxEvent> findPendingFor(@Param("aggregateIds") Collection<String> aggregateIds, Pageable pageable);
+}
@@ -0,0 +1,10 @@
+package com.mukando.commons.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+public record OutboxMessage(
+    String eventId,
+    String eventType,
+    String aggregateId,
+    JsonNode payload
+) {}
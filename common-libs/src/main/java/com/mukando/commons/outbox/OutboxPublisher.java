@@ -0,0 +1,40 @@
+package com.mukando.commons.outbox;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Records an event for another service in the caller's transaction. The event
+ * only exists if the business change commits; {@link OutboxRelay} delivers it later.
+ */
+@RequiredArgsConstructor
+public class OutboxPublisher {
+
+    private final OutboxEventRepository repository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String eventType, String aggregateId, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialise " + eventType + " event", e);
+        }
+        repository.save(OutboxEvent.builder()
+            .eventId(UUID.randomUUID().toString())
+            .eventType(eventType)
+            .aggregateId(aggregateId)
+            .payload(json)
+            .nextAttemptAt(LocalDateTime.now())
+            .build());
+    }
+}
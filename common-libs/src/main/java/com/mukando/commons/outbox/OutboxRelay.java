@@ -0,0 +1,210 @@
+package com.mukando.commons.outbox;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Polls the outbox and sends pending events to the peer, one batch per call.
+ * A batch is claimed in a short transaction: the due oldest event of each
+ * aggregate is locked with SKIP LOCKED, the aggregate's later events come with
+ * it, and all of them are leased for {@code claimTimeout} by pushing their next
+ * attempt out. The batch is then sent with no transaction open, and each event
+ * is deleted, backed off or released on its own in a second short transaction.
+ * A failed event holds back only the later events of its aggregate; events that
+ * still fail after {@code maxAttempts} are parked (soft-deleted) and logged so
+ * they stop blocking the ones behind them.
+ */
+@Slf4j
+public class OutboxRelay {
+
+    private static final int MAX_ERROR_LENGTH = 512;
+
+    private final OutboxEventRepository repository;
+    private final OutboxTransport transport;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration maxBackoff;
+    private final Duration claimTimeout;
+
+    private final Counter delivered;
+    private final Counter failed;
+    private final Counter parked;
+
+    public OutboxRelay(OutboxEventRepository repository, OutboxTransport transport,
+            TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+            int batchSize, int maxAttempts, Duration maxBackoff, Duration claimTimeout,
+            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.transport = transport;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.maxBackoff = maxBackoff;
+        this.claimTimeout = claimTimeout;
+        this.delivered = Counter.builder("outbox.delivered").register(meterRegistry);
+        this.failed = Counter.builder("outbox.failed").register(meterRegistry);
+        this.parked = Counter.builder("outbox.parked").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:500}")
+    public void relay() {
+        int claimed;
+        do {
+            claimed = relayBatch();
+        } while (claimed == batchSize);
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> claim(LocalDateTime.now()));
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, String> errors = new HashMap<>();
+        List<OutboxMessage> messages = new ArrayList<>();
+        Map<String, Long> idsByEventId = new HashMap<>();
+        Set<String> corruptAggregates = new HashSet<>();
+        for (OutboxEvent event : batch) {
+            // Later events of an aggregate wait behind an unreadable one like behind a failed one
+            if (corruptAggregates.contains(event.getAggregateId())) {
+                continue;
+            }
+            try {
+                messages.add(toMessage(event));
+                idsByEventId.put(event.getEventId(), event.getId());
+            } catch (IllegalStateException e) {
+                errors.put(event.getId(), e.getMessage());
+                corruptAggregates.add(event.getAggregateId());
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            try {
+                DeliveryReport report = transport.send(messages);
+                if (report != null) {
+                    report.rejected().forEach((eventId, error) -> {
+                        Long id = idsByEventId.get(eventId);
+                        if (id != null) {
+                            errors.put(id, error);
+                        }
+                    });
+                }
+            } catch (RuntimeException e) {
+                log.warn("Outbox delivery of {} events failed: {}", messages.size(), e.getMessage());
+                idsByEventId.values().forEach(id -> errors.put(id, e.toString()));
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> settle(batch, errors, LocalDateTime.now()));
+        return batch.size();
+    }
+
+    private List<OutboxEvent> claim(LocalDateTime now) {
+        List<OutboxEvent> heads = repository.findClaimableHeads(now, PageRequest.of(0, batchSize));
+        if (heads.isEmpty()) {
+            return heads;
+        }
+        Set<Long> headIds = heads.stream().map(OutboxEvent::getId).collect(Collectors.toSet());
+        List<OutboxEvent> batch = new ArrayList<>(heads);
+        repository.findPendingFor(heads.stream().map(OutboxEvent::getAggregateId).toList(),
+                PageRequest.of(0, batchSize)).stream()
+            .filter(event -> !headIds.contains(event.getId()))
+            .limit(batchSize - heads.size())
+            .forEach(batch::add);
+        batch.sort(Comparator.comparing(OutboxEvent::getId));
+
+        LocalDateTime leasedUntil = now.plus(claimTimeout);
+        batch.forEach(event -> event.setNextAttemptAt(leasedUntil));
+        return batch;
+    }
+
+    /**
+     * Deletes the delivered events, backs off the first failed event of each
+     * aggregate and releases the aggregate's later events, which were not
+     * attempted and become claimable once the failed one is delivered or parked.
+     */
+    private void settle(List<OutboxEvent> batch, Map<Long, String> errors, LocalDateTime now) {
+        List<Long> deliveredIds = new ArrayList<>();
+        Map<Long, String> retries = new HashMap<>();
+        List<Long> releasedIds = new ArrayList<>();
+        Set<String> blockedAggregates = new HashSet<>();
+        for (OutboxEvent event : batch) {
+            if (blockedAggregates.contains(event.getAggregateId())) {
+                releasedIds.add(event.getId());
+            } else if (errors.containsKey(event.getId())) {
+                retries.put(event.getId(), errors.get(event.getId()));
+                blockedAggregates.add(event.getAggregateId());
+            } else {
+                deliveredIds.add(event.getId());
+            }
+        }
+
+        if (!deliveredIds.isEmpty()) {
+            repository.deleteAllByIdInBatch(deliveredIds);
+            delivered.increment(deliveredIds.size());
+        }
+        if (!retries.isEmpty() || !releasedIds.isEmpty()) {
+            List<Long> ids = new ArrayList<>(retries.keySet());
+            ids.addAll(releasedIds);
+            for (OutboxEvent event : repository.findAllById(ids)) {
+                String error = retries.get(event.getId());
+                if (error != null) {
+                    scheduleRetry(event, error, now);
+                } else {
+                    event.setNextAttemptAt(now);
+                }
+            }
+            failed.increment(retries.size());
+        }
+    }
+
+    private void scheduleRetry(OutboxEvent event, String error, LocalDateTime now) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(truncate(error));
+        if (attempts >= maxAttempts) {
+            event.pseudoDelete();
+            parked.increment();
+            log.error("Parked outbox event {} ({}) for {} after {} attempts",
+                event.getEventId(), event.getEventType(), event.getAggregateId(), attempts);
+            return;
+        }
+        long backoffMillis = Math.min(maxBackoff.toMillis(), 1000L << Math.min(attempts - 1, 20));
+        event.setNextAttemptAt(now.plusNanos(backoffMillis * 1_000_000));
+    }
+
+    private OutboxMessage toMessage(OutboxEvent event) {
+        try {
+            return new OutboxMessage(event.getEventId(), event.getEventType(), event.getAggregateId(),
+                objectMapper.readTree(event.getPayload()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt outbox payload for event " + event.getEventId(), e);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,13 @@
+package com.mukando.commons.outbox;
+
+import java.util.List;
+
+/**
+ * Delivers a batch of events to the peer service and returns the events it
+ * rejected. Throwing means nothing is known to be applied, so every event is
+ * retried; the receiver drops any event it has already applied.
+ */
+@FunctionalInterface
+public interface OutboxTransport {
+    DeliveryReport send(List<OutboxMessage> messages);
+}
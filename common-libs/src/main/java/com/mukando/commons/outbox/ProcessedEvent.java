@@ -0,0 +1,28 @@
+package com.mukando.commons.outbox;
+
+import com.mukando.commons.jpa.BaseEntity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "processed_events", indexes = {
+    @Index(name = "idx_processed_events_created_date", columnList = "created_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessedEvent extends BaseEntity {
+
+    @Id
+    @Column(name = "event_id", length = 36)
+    private String eventId;
+}
@@ -0,0 +1,18 @@
+package com.mukando.commons.outbox;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.mukando.commons.jpa.BaseDao;
+
+@Repository
+public interface ProcessedEventRepository extends BaseDao<ProcessedEvent, String> {
+
+    @Modifying
+    @Query("delete from ProcessedEvent e where e.createdDate < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
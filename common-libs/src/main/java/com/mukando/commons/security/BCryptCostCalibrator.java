@@ -0,0 +1,61 @@
+package com.mukando.commons.security;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+/**
+ * Picks a BCrypt work factor from a latency budget on the current hardware.
+ * Each extra cost step doubles the hashing time, so one measurement at the
+ * lowest allowed cost is enough to extrapolate the rest.
+ */
+public final class BCryptCostCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    private BCryptCostCalibrator() {
+    }
+
+    /**
+     * Returns the highest cost in {@code [minStrength, maxStrength]} whose single
+     * hash is expected to stay within {@code targetLatency}. Never goes below
+     * {@code minStrength}, even when the hardware is slower than the budget.
+     */
+    public static int calibrate(Duration targetLatency, int minStrength, int maxStrength) {
+        if (minStrength < 4 || maxStrength > 31 || minStrength > maxStrength) {
+            throw new IllegalArgumentException("BCrypt strength range must lie within 4..31");
+        }
+        long targetNanos = targetLatency.toNanos();
+        long estimate = measure(minStrength);
+        int strength = minStrength;
+        while (strength < maxStrength && estimate * 2 <= targetNanos) {
+            strength++;
+            estimate *= 2;
+        }
+        return strength;
+    }
+
+    /**
+     * Median time, in nanoseconds, of one hash at the given cost on a single thread.
+     */
+    public static long measure(int strength) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            hash(strength);
+        }
+        long[] samples = new long[MEASURED_ROUNDS];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            hash(strength);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+
+    static String hash(int strength) {
+        return BCrypt.hashpw(SAMPLE_PASSWORD, BCrypt.gensalt(strength));
+    }
+}
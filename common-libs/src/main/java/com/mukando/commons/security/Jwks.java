@@ -0,0 +1,75 @@
+package com.mukando.commons.security;
+
+import java.math.BigInteger;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+public final class Jwks {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private Jwks() {
+    }
+
+    public static Map<String, Object> toJwkSet(Map<String, ? extends PublicKey> keys) {
+        List<Map<String, Object>> jwks = keys.entrySet().stream()
+            .filter(entry -> entry.getValue() instanceof RSAPublicKey)
+            .map(entry -> toJwk(entry.getKey(), (RSAPublicKey) entry.getValue()))
+            .toList();
+        return Map.of("keys", jwks);
+    }
+
+    public static Map<String, Object> toJwk(String kid, RSAPublicKey key) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "RSA");
+        jwk.put("kid", kid);
+        jwk.put("use", "sig");
+        jwk.put("alg", "RS256");
+        jwk.put("n", encode(key.getModulus()));
+        jwk.put("e", encode(key.getPublicExponent()));
+        return jwk;
+    }
+
+    public static Map<String, PublicKey> parse(JsonNode jwkSet) {
+        Map<String, PublicKey> keys = new HashMap<>();
+        for (JsonNode jwk : jwkSet.path("keys")) {
+            if (!"RSA".equals(jwk.path("kty").asText()) || !jwk.hasNonNull("kid")) {
+                continue;
+            }
+            keys.put(jwk.get("kid").asText(), toRsaPublicKey(jwk.path("n").asText(), jwk.path("e").asText()));
+        }
+        return keys;
+    }
+
+    private static PublicKey toRsaPublicKey(String modulus, String exponent) {
+        try {
+            RSAPublicKeySpec spec = new RSAPublicKeySpec(decode(modulus), decode(exponent));
+            return KeyFactory.getInstance("RSA").generatePublic(spec);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid RSA JWK", e);
+        }
+    }
+
+    private static String encode(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return ENCODER.encodeToString(bytes);
+    }
+
+    private static BigInteger decode(String value) {
+        return new BigInteger(1, DECODER.decode(value));
+    }
+}
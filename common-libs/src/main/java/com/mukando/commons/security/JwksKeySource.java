@@ -0,0 +1,9 @@
+package com.mukando.commons.security;
+
+import java.security.Key;
+import java.util.Map;
+
+@FunctionalInterface
+public interface JwksKeySource {
+    Map<String, ? extends Key> loadKeys();
+}
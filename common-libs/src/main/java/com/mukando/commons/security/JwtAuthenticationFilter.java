@@ -0,0 +1,83 @@
+package com.mukando.commons.security;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Authenticates requests locally from the bearer token's verified claims,
+ * without calling auth-service. Revoked tokens are rejected against a
+ * {@link TokenDenyList} kept in step by {@link RevocationSync}.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    private final JwtVerifier verifier;
+    private final VerifiedTokenCache tokenCache;
+    private final TokenDenyList denyList;
+    private final RoleMask<?> roleMask;
+
+    public JwtAuthenticationFilter(JwtVerifier verifier, VerifiedTokenCache tokenCache, TokenDenyList denyList,
+            RoleMask<?> roleMask) {
+        this.verifier = verifier;
+        this.tokenCache = tokenCache;
+        this.denyList = denyList;
+        this.roleMask = roleMask;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        final String authHeader = request.getHeader("Authorization");
+
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            JwtPrincipal principal = resolvePrincipal(authHeader.substring(7));
+            if (principal != null && principal.isRevoked(denyList)) {
+                log.debug("Rejected revoked token {}", principal.getTokenId());
+            } else if (principal != null) {
+                request.setAttribute("X-User-Id", String.valueOf(principal.getId()));
+                request.setAttribute("X-User-Roles", principal.getRoles());
+
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        principal, null, principal.getAuthorities()
+                );
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private JwtPrincipal resolvePrincipal(String token) {
+        JwtPrincipal principal = tokenCache.get(token);
+        if (principal != null) {
+            return principal;
+        }
+        try {
+            principal = JwtPrincipal.fromClaims(verifier.verify(token), roleMask);
+        } catch (Exception ex) {
+            log.warn("JWT verification failed: {}", ex.getMessage());
+            return null;
+        }
+        tokenCache.put(token, principal);
+        return principal;
+    }
+}
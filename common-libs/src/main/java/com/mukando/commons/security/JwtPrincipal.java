@@ -0,0 +1,50 @@
+package com.mukando.commons.security;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class JwtPrincipal implements AuthenticatedPrincipal {
+
+    private final Long id;
+    private final String username;
+    private final String roles;
+    private final List<GrantedAuthority> authorities;
+    private final long expiresAtMillis;
+    private final String tokenId;
+    private final long issuedAtMillis;
+
+    public static JwtPrincipal fromClaims(Claims claims, RoleMask<?> roleMask) {
+        int mask = TokenClaims.rolesMask(claims, roleMask);
+        return new JwtPrincipal(
+            TokenClaims.userId(claims),
+            claims.getSubject(),
+            roleMask.joined(mask),
+            roleMask.authorities(mask),
+            claims.getExpiration().getTime(),
+            claims.getId(),
+            TokenClaims.issuedAtMillis(claims)
+        );
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    public boolean isRevoked(TokenDenyList denyList) {
+        return denyList.isRevoked(tokenId, id, issuedAtMillis);
+    }
+}
@@ -0,0 +1,114 @@
+package com.mukando.commons.security;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+
+/**
+ * Verifies signed JWTs against a keyring looked up by {@code kid}.
+ * The parser is built once; the keyring is reloaded from its source when it
+ * goes stale or when a token names a key id that is not known yet.
+ */
+public class JwtVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtVerifier.class);
+    private static final long MIN_REFRESH_INTERVAL_MILLIS = Duration.ofSeconds(30).toMillis();
+
+    private final JwksKeySource keySource;
+    private final Key legacyKey;
+    private final long refreshIntervalMillis;
+    private final JwtParser parser;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile Map<String, ? extends Key> keys = Map.of();
+    private volatile long lastLoaded;
+    private volatile long lastAttempt;
+
+    public JwtVerifier(JwksKeySource keySource, Duration refreshInterval) {
+        this(keySource, null, refreshInterval);
+    }
+
+    /**
+     * @param legacyKey key used for tokens that carry no {@code kid}, or {@code null} to reject them
+     */
+    public JwtVerifier(JwksKeySource keySource, Key legacyKey, Duration refreshInterval) {
+        this.keySource = keySource;
+        this.legacyKey = legacyKey;
+        this.refreshIntervalMillis = refreshInterval.toMillis();
+        this.parser = Jwts.parserBuilder()
+            .setSigningKeyResolver(new KeyringResolver())
+            .build();
+    }
+
+    public Claims verify(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    public void refresh() {
+        reload(true);
+    }
+
+    private Key resolveKey(String kid) {
+        if (kid == null) {
+            if (legacyKey == null) {
+                throw new JwtException("Token does not carry a key id");
+            }
+            return legacyKey;
+        }
+        if (System.currentTimeMillis() - lastLoaded > refreshIntervalMillis) {
+            reload(false);
+        }
+        Key key = keys.get(kid);
+        if (key == null && reload(false)) {
+            key = keys.get(kid);
+        }
+        if (key == null) {
+            throw new JwtException("Unknown signing key id: " + kid);
+        }
+        return key;
+    }
+
+    private boolean reload(boolean force) {
+        long attemptedAt = lastAttempt;
+        refreshLock.lock();
+        try {
+            if (lastAttempt != attemptedAt) {
+                // Another thread reloaded while we were waiting
+                return true;
+            }
+            long now = System.currentTimeMillis();
+            if (!force && now - lastAttempt < MIN_REFRESH_INTERVAL_MILLIS) {
+                return false;
+            }
+            lastAttempt = now;
+            keys = Map.copyOf(keySource.loadKeys());
+            lastLoaded = now;
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Failed to load JWT verification keys", e);
+            return false;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private final class KeyringResolver extends SigningKeyResolverAdapter {
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            return resolveKey(header.getKeyId());
+        }
+    }
+}
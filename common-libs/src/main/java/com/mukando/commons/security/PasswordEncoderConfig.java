@@ -0,0 +1,44 @@
+package com.mukando.commons.security;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The {@link PasswordEncoder} of every service that hashes passwords: BCrypt at a
+ * configured or calibrated cost behind a {@link BoundedPasswordEncoder}.
+ */
+@Slf4j
+@Configuration
+public class PasswordEncoderConfig {
+
+    @Bean
+    public PasswordEncoder passwordEncoder(
+            @Value("${security.password.hashing.threads:0}") int threads,
+            @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password.hashing.max-wait:2s}") Duration maxWait,
+            @Value("${security.password.bcrypt.strength:10}") int strength,
+            @Value("${security.password.bcrypt.calibrate:false}") boolean calibrate,
+            @Value("${security.password.bcrypt.target-latency:250ms}") Duration targetLatency,
+            @Value("${security.password.bcrypt.min-strength:10}") int minStrength,
+            @Value("${security.password.bcrypt.max-strength:14}") int maxStrength,
+            MeterRegistry meterRegistry) {
+        int cost = strength;
+        if (calibrate) {
+            cost = BCryptCostCalibrator.calibrate(targetLatency, minStrength, maxStrength);
+            log.info("Calibrated BCrypt cost {} for a {} ms target", cost, targetLatency.toMillis());
+        }
+        int bcryptCost = cost;
+        Gauge.builder("password.hash.strength", () -> bcryptCost).register(meterRegistry);
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(PasswordEncoders.bcrypt(cost), poolSize, queueCapacity, maxWait, meterRegistry);
+    }
+}
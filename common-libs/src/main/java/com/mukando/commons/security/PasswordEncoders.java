@@ -0,0 +1,28 @@
+package com.mukando.commons.security;
+
+import java.util.Map;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+public final class PasswordEncoders {
+
+    public static final String BCRYPT_ID = "bcrypt";
+
+    private PasswordEncoders() {
+    }
+
+    /**
+     * BCrypt at the given cost behind a {@link DelegatingPasswordEncoder}. New hashes
+     * are stored as {@code {bcrypt}...}; older unprefixed BCrypt hashes still match,
+     * and {@link PasswordEncoder#upgradeEncoding} reports them (and any hash with a
+     * lower cost) so callers can rehash on the next successful login.
+     */
+    public static PasswordEncoder bcrypt(int strength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+}
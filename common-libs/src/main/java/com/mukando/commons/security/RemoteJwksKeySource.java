@@ -0,0 +1,52 @@
+package com.mukando.commons.security;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Loads verification keys from a JWKS endpoint such as auth-service's
+ * {@code /.well-known/jwks.json}.
+ */
+public class RemoteJwksKeySource implements JwksKeySource {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(3);
+
+    private final URI jwksUri;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+
+    public RemoteJwksKeySource(URI jwksUri) {
+        this.jwksUri = jwksUri;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+        this.objectMapper = new ObjectMapper();
+    }
+
+    @Override
+    public Map<String, PublicKey> loadKeys() {
+        HttpRequest request = HttpRequest.newBuilder(jwksUri)
+            .timeout(TIMEOUT)
+            .header("Accept", "application/json")
+            .GET()
+            .build();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("JWKS endpoint returned " + response.statusCode());
+            }
+            return Jwks.parse(objectMapper.readTree(response.body()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching JWKS from " + jwksUri, e);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to fetch JWKS from " + jwksUri, e);
+        }
+    }
+}
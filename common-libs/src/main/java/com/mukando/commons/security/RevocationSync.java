@@ -0,0 +1,51 @@
+package com.mukando.commons.security;
+
+import java.util.function.LongFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Keeps a {@link TokenDenyList} in step with the revocations auth-service has
+ * stored, so a token revoked through one instance is rejected by every verifier.
+ * Each {@link #poll} asks for what changed since the previous one, less an overlap
+ * for transactions that committed after the previous lookup; the first asks for
+ * everything still in force. Entries only ever add up, so repeats are harmless.
+ * Registered as a bean, it polls on {@code jwt.revocation.sync-interval}.
+ */
+public class RevocationSync {
+
+    private static final Logger log = LoggerFactory.getLogger(RevocationSync.class);
+
+    private final TokenDenyList denyList;
+    private final LongFunction<Revocations> source;
+    private final long overlapMillis;
+    private volatile long lastAsOf;
+
+    /**
+     * @param source returns the revocations recorded after the given epoch
+     *               millisecond, or all that are in force for 0
+     */
+    public RevocationSync(TokenDenyList denyList, LongFunction<Revocations> source, long overlapMillis) {
+        this.denyList = denyList;
+        this.source = source;
+        this.overlapMillis = overlapMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:5000}")
+    public void poll() {
+        long since = lastAsOf == 0 ? 0 : lastAsOf - overlapMillis;
+        try {
+            Revocations revocations = source.apply(since);
+            denyList.load(revocations.tokens(), revocations.watermarks());
+            denyList.purgeExpired(System.currentTimeMillis());
+            if (since == 0) {
+                log.info("Loaded {} token revocations", denyList.size());
+            }
+            lastAsOf = revocations.asOfMillis();
+        } catch (RuntimeException e) {
+            log.warn("Failed to sync token revocations since {}: {}", since, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.mukando.commons.security;
+
+import java.util.Map;
+
+/**
+ * Revocations recorded since a point in time, as served by auth-service to the
+ * other token verifiers: revoked token ids with their expiry, and per-user
+ * "issued before" watermarks, all in epoch milliseconds. {@code asOfMillis} is
+ * the time the lookup started, to be passed back as the next {@code since}.
+ */
+public record Revocations(
+    Map<String, Long> tokens,
+    Map<Long, Long> watermarks,
+    long asOfMillis
+) {}
@@ -0,0 +1,16 @@
+package com.mukando.commons.security;
+
+// The one role list shared by every service and the gateway. Roles are stored and
+// put in tokens as a bitmask by ordinal: only ever append new constants
+public enum Role {
+    USER,
+    ADMIN,
+    PRESIDENT,
+    MODERATOR,
+    SUPERADMIN,
+    TREASURER,
+    MEMBER,
+    GUEST;
+
+    public static final RoleMask<Role> MASK = RoleMask.of(Role.class);
+}
@@ -0,0 +1,139 @@
+package com.mukando.commons.security;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Encodes a set of roles as an int with bit {@code ordinal()} set per role. Every
+ * combination's role set, role names and authorities are built once up front and
+ * shared, so decoding and authority checks never allocate. Stored masks depend on
+ * the ordinals: new roles must only ever be appended to the enum.
+ */
+public final class RoleMask<E extends Enum<E>> {
+
+    private static final int MAX_ROLES = 16;
+
+    private final Class<E> type;
+    private final E[] constants;
+    private final Set<E>[] roles;
+    private final SortedSet<String>[] names;
+    private final String[] joinedNames;
+    private final Map<String, Integer> bitsByName;
+    private final List<GrantedAuthority>[] authorities;
+
+    @SuppressWarnings("unchecked")
+    private RoleMask(Class<E> type) {
+        this.type = type;
+        this.constants = type.getEnumConstants();
+        if (constants.length > MAX_ROLES) {
+            throw new IllegalArgumentException(type.getSimpleName() + " has more than " + MAX_ROLES + " roles");
+        }
+        int combinations = 1 << constants.length;
+        this.roles = new Set[combinations];
+        this.names = new SortedSet[combinations];
+        this.joinedNames = new String[combinations];
+        this.authorities = new List[combinations];
+        for (int mask = 0; mask < combinations; mask++) {
+            EnumSet<E> set = EnumSet.noneOf(type);
+            for (E constant : constants) {
+                if ((mask & bit(constant)) != 0) {
+                    set.add(constant);
+                }
+            }
+            TreeSet<String> sortedNames = new TreeSet<>();
+            set.forEach(role -> sortedNames.add(role.name()));
+            roles[mask] = Collections.unmodifiableSet(set);
+            names[mask] = Collections.unmodifiableSortedSet(sortedNames);
+            joinedNames[mask] = String.join(",", sortedNames);
+            authorities[mask] = set.stream()
+                .<GrantedAuthority>map(role -> new SimpleGrantedAuthority(role.name()))
+                .toList();
+        }
+        Map<String, Integer> bits = new HashMap<>();
+        for (E constant : constants) {
+            bits.put(constant.name(), bit(constant));
+        }
+        this.bitsByName = Map.copyOf(bits);
+    }
+
+    public static <E extends Enum<E>> RoleMask<E> of(Class<E> type) {
+        return new RoleMask<>(type);
+    }
+
+    public int bit(E role) {
+        return 1 << role.ordinal();
+    }
+
+    /**
+     * Bit for a role name, or 0 when this enum has no such role.
+     */
+    public int bit(String name) {
+        return bitsByName.getOrDefault(name, 0);
+    }
+
+    /**
+     * Drops bits that name no role here, e.g. roles added by a newer peer service.
+     */
+    public int retainKnown(int mask) {
+        return mask & (roles.length - 1);
+    }
+
+    public int encode(Collection<E> roles) {
+        int mask = 0;
+        if (roles != null) {
+            for (E role : roles) {
+                mask |= bit(role);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Encodes role names, ignoring blanks; unknown names are rejected.
+     */
+    public int encodeNames(Collection<String> roleNames) {
+        int mask = 0;
+        if (roleNames != null) {
+            for (String name : roleNames) {
+                if (name != null && !name.isBlank()) {
+                    mask |= bit(Enum.valueOf(type, name.trim().toUpperCase()));
+                }
+            }
+        }
+        return mask;
+    }
+
+    public Set<E> decode(int mask) {
+        return roles[checked(mask)];
+    }
+
+    public SortedSet<String> names(int mask) {
+        return names[checked(mask)];
+    }
+
+    // Comma-separated sorted names, the legacy "roles" claim and X-User-Roles format
+    public String joined(int mask) {
+        return joinedNames[checked(mask)];
+    }
+
+    public List<GrantedAuthority> authorities(int mask) {
+        return authorities[checked(mask)];
+    }
+
+    private int checked(int mask) {
+        if (mask < 0 || mask >= roles.length) {
+            throw new IllegalArgumentException("Role mask " + mask + " has bits outside " + type.getSimpleName());
+        }
+        return mask;
+    }
+}
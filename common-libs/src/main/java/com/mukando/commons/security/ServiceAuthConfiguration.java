@@ -0,0 +1,41 @@
+package com.mukando.commons.security;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import feign.RequestInterceptor;
+
+/**
+ * Service-to-service authentication: a {@link ServiceTokens} issuer/verifier named
+ * after {@code spring.application.name}, and a Feign interceptor that attaches the
+ * current token to every Feign call, along with the client IP of the request it is
+ * made while serving, if any. The importing application adds a
+ * {@link ServiceAuthenticationFilter} to its security filter chain.
+ */
+@Configuration
+public class ServiceAuthConfiguration {
+
+    @Bean
+    public ServiceTokens serviceTokens(
+            @Value("${security.service-token.secret}") String secret,
+            @Value("${spring.application.name}") String serviceName,
+            @Value("${security.service-token.ttl:5m}") Duration ttl) {
+        return new ServiceTokens(secret, serviceName, ttl);
+    }
+
+    @Bean
+    public RequestInterceptor serviceTokenInterceptor(ServiceTokens serviceTokens) {
+        return template -> {
+            template.header(ServiceTokens.HEADER, serviceTokens.current());
+            if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+                template.header(ServiceTokens.CLIENT_IP_HEADER,
+                    ServiceAuthenticationFilter.clientIp(attributes.getRequest()));
+            }
+        };
+    }
+}
@@ -0,0 +1,74 @@
+package com.mukando.commons.security;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Authenticates calls from other services by their {@link ServiceTokens#HEADER}
+ * token. Add it before the user token filter; requests without the header pass
+ * through untouched. The {@link ServiceTokens#CLIENT_IP_HEADER} of an authenticated
+ * call is what {@link #clientIp} reports; from anyone else it is ignored.
+ */
+public class ServiceAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceAuthenticationFilter.class);
+    private static final String CLIENT_IP_ATTRIBUTE = ServiceAuthenticationFilter.class.getName() + ".CLIENT_IP";
+
+    private final ServiceTokens serviceTokens;
+
+    public ServiceAuthenticationFilter(ServiceTokens serviceTokens) {
+        this.serviceTokens = serviceTokens;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        final String token = request.getHeader(ServiceTokens.HEADER);
+
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            try {
+                String service = serviceTokens.verify(token);
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        service, null, List.of(new SimpleGrantedAuthority(ServiceTokens.AUTHORITY))
+                );
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+                String clientIp = request.getHeader(ServiceTokens.CLIENT_IP_HEADER);
+                if (clientIp != null && !clientIp.isBlank()) {
+                    request.setAttribute(CLIENT_IP_ATTRIBUTE, clientIp.trim());
+                }
+            } catch (Exception ex) {
+                log.warn("Service token verification failed: {}", ex.getMessage());
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Address of the end user a request is made for: the one forwarded by an
+     * authenticated service caller, otherwise the peer address.
+     */
+    public static String clientIp(HttpServletRequest request) {
+        Object forwarded = request.getAttribute(CLIENT_IP_ATTRIBUTE);
+        return forwarded != null ? forwarded.toString() : request.getRemoteAddr();
+    }
+}
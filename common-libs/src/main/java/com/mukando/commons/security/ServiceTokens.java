@@ -0,0 +1,72 @@
+package com.mukando.commons.security;
+
+import java.time.Duration;
+import java.util.Date;
+
+import javax.crypto.SecretKey;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Short-lived tokens that services attach to each other's internal calls, signed
+ * with a secret shared by the services and never issued to users. A verified token
+ * grants the {@link #AUTHORITY SERVICE} authority. The current token is reused
+ * until it is within a minute of expiring.
+ */
+public class ServiceTokens {
+
+    public static final String HEADER = "X-Service-Token";
+    public static final String AUTHORITY = "SERVICE";
+    // Address of the end user a service call is made for; only trusted alongside a valid token
+    public static final String CLIENT_IP_HEADER = "X-Client-IP";
+    private static final String AUDIENCE = "mukando-services";
+
+    private final SecretKey key;
+    private final String serviceName;
+    private final Duration ttl;
+    private volatile String current;
+    private volatile long refreshAtMillis;
+
+    public ServiceTokens(String base64Secret, String serviceName, Duration ttl) {
+        this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
+        this.serviceName = serviceName;
+        this.ttl = ttl;
+    }
+
+    public String current() {
+        long now = System.currentTimeMillis();
+        String token = current;
+        if (token == null || now >= refreshAtMillis) {
+            token = Jwts.builder()
+                .setSubject(serviceName)
+                .setAudience(AUDIENCE)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + ttl.toMillis()))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+            current = token;
+            refreshAtMillis = now + Math.max(ttl.toMillis() / 2, ttl.toMillis() - 60_000);
+        }
+        return token;
+    }
+
+    /**
+     * Returns the name of the calling service.
+     *
+     * @throws JwtException if the token is not a valid, unexpired service token
+     */
+    public String verify(String token) {
+        Claims claims = Jwts.parserBuilder()
+            .setSigningKey(key)
+            .requireAudience(AUDIENCE)
+            .build()
+            .parseClaimsJws(token)
+            .getBody();
+        return claims.getSubject();
+    }
+}
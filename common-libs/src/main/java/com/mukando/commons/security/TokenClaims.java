@@ -0,0 +1,68 @@
+package com.mukando.commons.security;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Claim names of access tokens. Format 2 tokens carry the user id as {@code uid} and
+ * the roles as a {@link RoleMask} bitmask in {@code rm}; tokens without {@code v}
+ * are the original format with {@code userId} and a comma-joined {@code roles}
+ * string, which is still accepted until every such token has expired. Format 2
+ * tokens carry the issue time as {@code ims} in milliseconds instead of {@code iat},
+ * which only has seconds and would let a revocation watermark spare a token issued
+ * just before it; {@code iat} is only read from the original format.
+ */
+public final class TokenClaims {
+
+    public static final String FORMAT = "v";
+    public static final int COMPACT_FORMAT = 2;
+    public static final String USER_ID = "uid";
+    public static final String ROLES_MASK = "rm";
+    public static final String ISSUED_AT_MILLIS = "ims";
+
+    static final String LEGACY_USER_ID = "userId";
+    static final String LEGACY_ROLES = "roles";
+
+    private TokenClaims() {
+    }
+
+    public static boolean isCompact(Claims claims) {
+        return claims.get(FORMAT) != null;
+    }
+
+    public static Long userId(Claims claims) {
+        return claims.get(isCompact(claims) ? USER_ID : LEGACY_USER_ID, Long.class);
+    }
+
+    /**
+     * Issue time in milliseconds; original-format tokens without {@code ims} count as
+     * issued at the start of their {@code iat} second, so a watermark in that second
+     * covers them.
+     */
+    public static long issuedAtMillis(Claims claims) {
+        Number millis = claims.get(ISSUED_AT_MILLIS, Number.class);
+        if (millis != null) {
+            return millis.longValue();
+        }
+        return claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L;
+    }
+
+    /**
+     * Roles of either format as a mask of {@code roles}; roles this service does not
+     * know are dropped rather than failing the token.
+     */
+    public static int rolesMask(Claims claims, RoleMask<?> roles) {
+        if (isCompact(claims)) {
+            Number mask = claims.get(ROLES_MASK, Number.class);
+            return mask == null ? 0 : roles.retainKnown(mask.intValue());
+        }
+        String names = claims.get(LEGACY_ROLES, String.class);
+        if (names == null || names.isBlank()) {
+            return 0;
+        }
+        int mask = 0;
+        for (String name : names.split(",")) {
+            mask |= roles.bit(name.trim());
+        }
+        return mask;
+    }
+}
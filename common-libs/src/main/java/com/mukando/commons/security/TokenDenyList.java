@@ -0,0 +1,63 @@
+package com.mukando.commons.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory record of revoked access tokens, checked on every authenticated
+ * request without touching the database. Holds individual token ids until the
+ * token would have expired anyway, and per-user "issued before" watermarks until
+ * every token issued before them has expired. auth-service persists entries, and
+ * every verifier {@link #load loads} them through {@link RevocationSync}. Free of
+ * Spring Security types, so the reactive gateway can use it as well.
+ */
+public class TokenDenyList {
+
+    private final long maxTokenLifetimeMillis;
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<Long, Long> userWatermarks = new ConcurrentHashMap<>();
+
+    public TokenDenyList(long maxTokenLifetimeMillis) {
+        this.maxTokenLifetimeMillis = maxTokenLifetimeMillis;
+    }
+
+    public boolean isRevoked(String tokenId, Long userId, long issuedAtMillis) {
+        if (tokenId != null && !revokedTokens.isEmpty() && revokedTokens.containsKey(tokenId)) {
+            return true;
+        }
+        if (userId == null || userWatermarks.isEmpty()) {
+            return false;
+        }
+        Long revokedBefore = userWatermarks.get(userId);
+        return revokedBefore != null && issuedAtMillis < revokedBefore;
+    }
+
+    public void revokeToken(String tokenId, long expiresAtMillis) {
+        if (tokenId != null && expiresAtMillis > System.currentTimeMillis()) {
+            revokedTokens.merge(tokenId, expiresAtMillis, Math::max);
+        }
+    }
+
+    public void revokeIssuedBefore(Long userId, long revokedBeforeMillis) {
+        userWatermarks.merge(userId, revokedBeforeMillis, Math::max);
+    }
+
+    public void load(Map<String, Long> tokens, Map<Long, Long> watermarks) {
+        tokens.forEach(this::revokeToken);
+        watermarks.forEach(this::revokeIssuedBefore);
+    }
+
+    /**
+     * Drops entries that can no longer match a live token.
+     */
+    public int purgeExpired(long nowMillis) {
+        int before = revokedTokens.size() + userWatermarks.size();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= nowMillis);
+        userWatermarks.values().removeIf(revokedBefore -> revokedBefore + maxTokenLifetimeMillis <= nowMillis);
+        return before - revokedTokens.size() - userWatermarks.size();
+    }
+
+    public int size() {
+        return revokedTokens.size() + userWatermarks.size();
+    }
+}
@@ -0,0 +1,61 @@
+package com.mukando.commons.security;
+
+import java.util.concurrent.TimeUnit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * Bounded cache of tokens whose signature has already been verified.
+ * Each entry lives only until the token's own expiry.
+ */
+public class VerifiedTokenCache {
+
+    private final Cache<String, JwtPrincipal> cache;
+
+    public VerifiedTokenCache(long maxSize) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new TokenExpiry())
+            .build();
+    }
+
+    public JwtPrincipal get(String token) {
+        JwtPrincipal principal = cache.getIfPresent(token);
+        if (principal != null && principal.getExpiresAtMillis() <= System.currentTimeMillis()) {
+            cache.invalidate(token);
+            return null;
+        }
+        return principal;
+    }
+
+    public void put(String token, JwtPrincipal principal) {
+        if (principal.getExpiresAtMillis() > System.currentTimeMillis()) {
+            cache.put(token, principal);
+        }
+    }
+
+    public void invalidate(String token) {
+        cache.invalidate(token);
+    }
+
+    private static final class TokenExpiry implements Expiry<String, JwtPrincipal> {
+
+        @Override
+        public long expireAfterCreate(String token, JwtPrincipal principal, long currentTime) {
+            long remainingMillis = principal.getExpiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, principal, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
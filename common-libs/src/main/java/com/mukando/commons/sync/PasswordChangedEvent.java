@@ -0,0 +1,5 @@
+package com.mukando.commons.sync;
+
+public record PasswordChangedEvent(String username, String passwordHash, int passwordVersion) {
+    public static final String TYPE = "user.password-changed";
+}
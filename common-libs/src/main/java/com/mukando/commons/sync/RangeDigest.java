@@ -0,0 +1,3 @@
+package com.mukando.commons.sync;
+
+public record RangeDigest(int count, String digest) {}
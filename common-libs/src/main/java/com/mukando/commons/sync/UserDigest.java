@@ -0,0 +1,36 @@
+package com.mukando.commons.sync;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * SHA-256 over a username-ordered run of {@link UserSnapshot}s. Two services
+ * holding the same users in a key range produce the same digest for it.
+ */
+public final class UserDigest {
+
+    private static final byte[] ROW_SEPARATOR = {'\n'};
+
+    private UserDigest() {
+    }
+
+    public static RangeDigest of(List<UserSnapshot> snapshots) {
+        MessageDigest digest = sha256();
+        for (UserSnapshot snapshot : snapshots) {
+            digest.update(snapshot.canonical().getBytes(StandardCharsets.UTF_8));
+            digest.update(ROW_SEPARATOR);
+        }
+        return new RangeDigest(snapshots.size(), HexFormat.of().formatHex(digest.digest()));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.mukando.commons.sync;
+
+import java.util.Set;
+
+public record UserRegisteredEvent(
+    String username,
+    String passwordHash,
+    String email,
+    String firstName,
+    String lastName,
+    String phoneNumber,
+    String address,
+    String city,
+    String country,
+    Set<String> roles,
+    int passwordVersion
+) {
+    public static final String TYPE = "user.registered";
+}
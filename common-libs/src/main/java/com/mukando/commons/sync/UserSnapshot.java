@@ -0,0 +1,54 @@
+package com.mukando.commons.sync;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.SortedSet;
+
+import com.mukando.commons.security.RoleMask;
+
+/**
+ * The user fields both services keep and must agree on. Password hashes are
+ * left out, as each service may rehash its own independently; the password
+ * version user-service bumps on every change stands in for them.
+ */
+public record UserSnapshot(
+    String username,
+    String email,
+    String firstName,
+    String lastName,
+    String phoneNumber,
+    String address,
+    String city,
+    String country,
+    boolean enabled,
+    SortedSet<String> roles,
+    int passwordVersion
+) {
+    /**
+     * Maps rows of {@code username, email, firstName, lastName, phoneNumber, address,
+     * city, country, enabled, rolesMask, passwordVersion} to snapshots, keeping the row order.
+     */
+    public static List<UserSnapshot> fromRows(List<Object[]> rows, RoleMask<?> roles) {
+        List<UserSnapshot> snapshots = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            snapshots.add(new UserSnapshot((String) row[0], (String) row[1], (String) row[2], (String) row[3],
+                (String) row[4], (String) row[5], (String) row[6], (String) row[7],
+                (Boolean) row[8], roles.names((Integer) row[9]), (Integer) row[10]));
+        }
+        return snapshots;
+    }
+
+    String canonical() {
+        return String.join("\u001f",
+            username, Objects.toString(email, ""), Objects.toString(firstName, ""),
+            Objects.toString(lastName, ""), Objects.toString(phoneNumber, ""), Objects.toString(address, ""),
+            Objects.toString(city, ""), Objects.toString(country, ""), Boolean.toString(enabled),
+            String.join(",", roles), Integer.toString(passwordVersion));
+    }
+
+    public UserSnapshot withPasswordVersion(int passwordVersion) {
+        return new UserSnapshot(username, email, firstName, lastName, phoneNumber, address, city, country,
+            enabled, roles, passwordVersion);
+    }
+}
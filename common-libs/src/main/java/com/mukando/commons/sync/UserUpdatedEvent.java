@@ -0,0 +1,5 @@
+package com.mukando.commons.sync;
+
+public record UserUpdatedEvent(UserSnapshot user) {
+    public static final String TYPE = "user.updated";
+}
@@ -0,0 +1,11 @@
+package com.mukando.commons.sync;
+
+import java.util.List;
+
+/**
+ * Many {@link UserUpdatedEvent}s in one outbox row, as set-based changes were sent
+ * before they switched to one event per user. Still applied for rows queued then.
+ */
+public record UsersUpdatedEvent(List<UserSnapshot> users) {
+    public static final String TYPE = "users.updated";
+}
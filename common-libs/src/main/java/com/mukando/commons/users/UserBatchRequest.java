@@ -0,0 +1,31 @@
+package com.mukando.commons.users;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Users to look up by id, by username, or both, in the order the caller wants
+ * them back. Either list may be omitted. Usernames match the way the database
+ * compares them: regardless of case and accents.
+ */
+public record UserBatchRequest(
+    List<Long> ids,
+    List<String> usernames
+) {
+    public UserBatchRequest {
+        ids = ids == null ? List.of() : ids;
+        usernames = usernames == null ? List.of() : usernames;
+    }
+
+    public static UserBatchRequest ofIds(Collection<Long> ids) {
+        return new UserBatchRequest(List.copyOf(ids), List.of());
+    }
+
+    public static UserBatchRequest ofUsernames(Collection<String> usernames) {
+        return new UserBatchRequest(List.of(), List.copyOf(usernames));
+    }
+
+    public int size() {
+        return ids.size() + usernames.size();
+    }
+}
@@ -0,0 +1,14 @@
+package com.mukando.commons.users;
+
+import java.util.List;
+
+/**
+ * Users found for a {@link UserBatchRequest}, each once and in request order (ids
+ * first), plus the ids and usernames that matched no user, each once and in
+ * request order.
+ */
+public record UserBatchResponse(
+    List<UserSummary> users,
+    List<Long> missingIds,
+    List<String> missingUsernames
+) {}
@@ -0,0 +1,21 @@
+package com.mukando.commons.users;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+/**
+ * user-service lookups for services that show many users at once. Enable it with
+ * {@code @EnableFeignClients(clients = UserClient.class)} and import
+ * {@link com.mukando.commons.security.ServiceAuthConfiguration} so calls carry a
+ * service token.
+ */
+@FeignClient(name = "user-service", contextId = "userClient", path = "/api/users")
+public interface UserClient {
+
+    /** At most {@link #MAX_BATCH_SIZE} ids and usernames together; split larger sets. */
+    int MAX_BATCH_SIZE = 500;
+
+    @PostMapping("/batch")
+    UserBatchResponse getUsers(@RequestBody UserBatchRequest request);
+}
@@ -0,0 +1,17 @@
+package com.mukando.commons.users;
+
+import java.util.SortedSet;
+
+/**
+ * The user fields other services show in rosters and listings.
+ */
+public record UserSummary(
+    Long id,
+    String username,
+    String email,
+    String firstName,
+    String lastName,
+    String phoneNumber,
+    boolean enabled,
+    SortedSet<String> roles
+) {}
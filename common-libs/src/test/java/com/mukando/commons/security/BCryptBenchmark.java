@@ -0,0 +1,76 @@
+package com.mukando.commons.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command-line BCrypt throughput benchmark used to size login capacity per
+ * instance type. Hashes on every core at once for each cost and prints total
+ * and per-core hashes per second. Kept with the test sources so it is not
+ * shipped in the jar; run it from common-libs with
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mukando.commons.security.BCryptBenchmark -Dexec.args="[seconds] [cost...]"
+ * </pre>
+ */
+public final class BCryptBenchmark {
+
+    private static final int DEFAULT_SECONDS = 10;
+    private static final int[] DEFAULT_COSTS = {10, 11, 12, 13};
+
+    private BCryptBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SECONDS;
+        int[] costs = DEFAULT_COSTS;
+        if (args.length > 1) {
+            costs = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                costs[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("BCrypt benchmark: %d cores, %ds per cost%n", cores, seconds);
+        System.out.printf("%-6s %14s %16s %14s%n", "cost", "hashes/sec", "hashes/sec/core", "ms/hash");
+        for (int cost : costs) {
+            double total = hashesPerSecond(cost, cores, seconds);
+            System.out.printf("%-6d %14.1f %16.2f %14.1f%n", cost, total, total / cores, 1000.0 * cores / total);
+        }
+    }
+
+    /**
+     * Sustained hashes per second across {@code threads} threads hashing at the given cost.
+     */
+    public static double hashesPerSecond(int cost, int threads, int seconds) throws Exception {
+        BCryptCostCalibrator.hash(cost);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            List<Future<Long>> workers = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                workers.add(pool.submit(() -> {
+                    long count = 0;
+                    while (System.nanoTime() < deadline) {
+                        BCryptCostCalibrator.hash(cost);
+                        count++;
+                    }
+                    return count;
+                }));
+            }
+            long hashes = 0;
+            for (Future<Long> worker : workers) {
+                hashes += worker.get();
+            }
+            return hashes / (double) seconds;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -2,10 +2,27 @@ package com.mukando.userservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.mukando.commons.datasource.ReadReplicaConfiguration;
+import com.mukando.commons.exception.GlobalExceptionHandler;
+import com.mukando.commons.jpa.IndexVerifier;
+import com.mukando.commons.outbox.OutboxConfiguration;
+import com.mukando.commons.outbox.OutboxEvent;
+import com.mukando.commons.security.PasswordEncoderConfig;
+import com.mukando.commons.security.ServiceAuthConfiguration;
 
 @SpringBootApplication
 @EnableFeignClients(basePackages = "com.mukando.userservice.feign")
+@EnableScheduling
+@EntityScan(basePackageClasses = {UserServiceApplication.class, OutboxEvent.class})
+@EnableJpaRepositories(basePackageClasses = {UserServiceApplication.class, OutboxEvent.class})
+@Import({GlobalExceptionHandler.class, OutboxConfiguration.class, ReadReplicaConfiguration.class,
+    IndexVerifier.class, ServiceAuthConfiguration.class, PasswordEncoderConfig.class})
 public class UserServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,114 @@
+package com.mukando.userservice.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import com.mukando.commons.security.ServiceTokens;
+import com.mukando.userservice.dto.UserInvalidation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tells the other user-service instances registered in Eureka which users changed
+ * on this node. Committed changes are coalesced per user (highest version wins)
+ * and flushed as one small batch per peer on a short fixed delay. Delivery is
+ * best effort: a peer that misses a batch serves the old copy until the cache TTL.
+ * Batches carry this service's {@link ServiceTokens} token, as Feign calls do.
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBroadcaster {
+
+    static final String INVALIDATION_PATH = "/api/users/internal/cache-invalidations";
+
+    private final DiscoveryClient discoveryClient;
+    private final ObjectProvider<Registration> registration;
+    private final String serviceId;
+    private final RestClient restClient;
+    private final ServiceTokens serviceTokens;
+    private final Map<Long, Integer> pending = new ConcurrentHashMap<>();
+
+    private final Counter sent;
+    private final Counter failed;
+
+    public CacheInvalidationBroadcaster(
+            DiscoveryClient discoveryClient,
+            ObjectProvider<Registration> registration,
+            @Value("${spring.application.name}") String serviceId,
+            @Value("${users.cache.invalidation.timeout:500ms}") Duration timeout,
+            ServiceTokens serviceTokens,
+            MeterRegistry meterRegistry
+    ) {
+        this.discoveryClient = discoveryClient;
+        this.registration = registration;
+        this.serviceId = serviceId;
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+        this.serviceTokens = serviceTokens;
+        this.sent = Counter.builder("users.cache.invalidations.sent").register(meterRegistry);
+        this.failed = Counter.builder("users.cache.invalidations.failed").register(meterRegistry);
+    }
+
+    @EventListener
+    public void onCommitted(UserInvalidation invalidation) {
+        pending.merge(invalidation.id(), invalidation.version(), Math::max);
+    }
+
+    @Scheduled(fixedDelayString = "${users.cache.invalidation.flush-interval:100}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<UserInvalidation> batch = new ArrayList<>(pending.size());
+        for (Long id : pending.keySet()) {
+            Integer version = pending.remove(id);
+            if (version != null) {
+                batch.add(new UserInvalidation(id, version));
+            }
+        }
+        for (ServiceInstance peer : peers()) {
+            try {
+                restClient.post()
+                    .uri(peer.getUri() + INVALIDATION_PATH)
+                    .header(ServiceTokens.HEADER, serviceTokens.current())
+                    .body(batch)
+                    .retrieve()
+                    .toBodilessEntity();
+                sent.increment(batch.size());
+            } catch (RestClientException e) {
+                failed.increment(batch.size());
+                log.debug("Cache invalidation to {} failed: {}", peer.getUri(), e.getMessage());
+            }
+        }
+    }
+
+    private List<ServiceInstance> peers() {
+        Registration self = registration.getIfAvailable();
+        return discoveryClient.getInstances(serviceId).stream()
+            .filter(instance -> self == null || !isSameInstance(self, instance))
+            .toList();
+    }
+
+    private static boolean isSameInstance(ServiceInstance self, ServiceInstance other) {
+        return self.getHost().equalsIgnoreCase(other.getHost()) && self.getPort() == other.getPort();
+    }
+}
@@ -0,0 +1,86 @@
+package com.mukando.userservice.cache;
+
+import java.time.LocalDateTime;
+
+import com.mukando.userservice.model.User;
+
+/**
+ * Immutable copy of a user as {@link UserCache} holds it. Each read gets a fresh,
+ * detached {@link User} from {@link #toUser}, so the cache never shares an
+ * instance that a persistence context manages or that a caller may change.
+ */
+record CachedUser(
+    Long id,
+    String username,
+    String password,
+    int passwordVersion,
+    String email,
+    String phoneNumber,
+    String firstName,
+    String lastName,
+    String address,
+    String city,
+    String country,
+    boolean enabled,
+    boolean accountNonExpired,
+    boolean accountNonLocked,
+    boolean credentialsNonExpired,
+    int rolesMask,
+    String createdBy,
+    LocalDateTime createdDate,
+    String lastModifiedBy,
+    LocalDateTime lastModifiedDate,
+    int version
+) {
+    static CachedUser of(User user) {
+        return new CachedUser(
+            user.getId(),
+            user.getUsername(),
+            user.getPassword(),
+            user.getPasswordVersion(),
+            user.getEmail(),
+            user.getPhoneNumber(),
+            user.getFirstName(),
+            user.getLastName(),
+            user.getAddress(),
+            user.getCity(),
+            user.getCountry(),
+            user.isEnabled(),
+            user.isAccountNonExpired(),
+            user.isAccountNonLocked(),
+            user.isCredentialsNonExpired(),
+            user.getRolesMask(),
+            user.getCreatedBy(),
+            user.getCreatedDate(),
+            user.getLastModifiedBy(),
+            user.getLastModifiedDate(),
+            user.getVersion() == null ? 0 : user.getVersion());
+    }
+
+    User toUser() {
+        User user = User.builder()
+            .id(id)
+            .username(username)
+            .password(password)
+            .passwordVersion(passwordVersion)
+            .email(email)
+            .phoneNumber(phoneNumber)
+            .firstName(firstName)
+            .lastName(lastName)
+            .address(address)
+            .city(city)
+            .country(country)
+            .enabled(enabled)
+            .accountNonExpired(accountNonExpired)
+            .accountNonLocked(accountNonLocked)
+            .credentialsNonExpired(credentialsNonExpired)
+            .rolesMask(rolesMask)
+            .build();
+        user.setCreatedBy(createdBy);
+        user.setCreatedDate(createdDate);
+        user.setLastModifiedBy(lastModifiedBy);
+        user.setLastModifiedDate(lastModifiedDate);
+        user.setVersion(version);
+        return user;
+    }
+}
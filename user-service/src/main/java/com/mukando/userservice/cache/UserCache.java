@@ -0,0 +1,264 @@
+package com.mukando.userservice.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mukando.commons.jpa.Collation;
+import com.mukando.userservice.dto.UserInvalidation;
+import com.mukando.userservice.model.User;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Read-through cache of users keyed by id, with username and email indexes
+ * pointing at the id; those are keyed by {@link Collation#key}, so a lookup hits
+ * whatever case or accents it uses, as it would in the database. Users are held
+ * as immutable {@link CachedUser} copies and every hit returns a new detached
+ * {@link User}, so no cached state is shared with a persistence context or
+ * between callers. Only read paths go through it; write paths load from the
+ * database and call {@link #evict} with the user as it was before the change,
+ * which drops its keys immediately and again after commit so a concurrent read
+ * cannot put the old row back.
+ * <p>
+ * The highest committed {@code version} seen per user, locally or from a peer's
+ * {@link UserInvalidation}, is remembered for the TTL; cached copies below it are
+ * treated as misses and older invalidations arriving late are rejected. A peer's
+ * version is capped at the one in the database, so a version ahead of any real
+ * write cannot keep the user out of the cache.
+ */
+@Component
+public class UserCache {
+
+    private final Cache<Long, CachedUser> byId;
+    private final Cache<String, Long> idByUsername;
+    private final Cache<String, Long> idByEmail;
+    private final Cache<Long, Integer> knownVersions;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public UserCache(
+            @Value("${users.cache.max-size:10000}") long maxSize,
+            @Value("${users.cache.ttl:5m}") Duration ttl,
+            MeterRegistry meterRegistry,
+            ApplicationEventPublisher eventPublisher
+    ) {
+        this.byId = build(maxSize, ttl);
+        this.idByUsername = build(maxSize, ttl);
+        this.idByEmail = build(maxSize, ttl);
+        this.knownVersions = build(maxSize, ttl);
+        this.eventPublisher = eventPublisher;
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "users");
+        CaffeineCacheMetrics.monitor(meterRegistry, idByUsername, "users.by-username");
+        CaffeineCacheMetrics.monitor(meterRegistry, idByEmail, "users.by-email");
+    }
+
+    public Optional<User> getById(Long id, Function<Long, Optional<User>> loader) {
+        CachedUser cached = byId.getIfPresent(id);
+        if (cached != null && isCurrent(cached.id(), cached.version())) {
+            return Optional.of(cached.toUser());
+        }
+        return loader.apply(id).map(this::put);
+    }
+
+    public Optional<User> getByUsername(String username, Supplier<Optional<User>> loader) {
+        return getByKey(idByUsername, Collation.key(username), CachedUser::username, loader);
+    }
+
+    public Optional<User> getByEmail(String email, Supplier<Optional<User>> loader) {
+        return getByKey(idByEmail, Collation.key(email), CachedUser::email, loader);
+    }
+
+    /**
+     * Returns the users found for {@code ids}, keyed by id. Cached users are used as they
+     * are; all the others are fetched with a single call to {@code loader}.
+     */
+    public Map<Long, User> getAllById(Collection<Long> ids, Function<Collection<Long>, List<User>> loader) {
+        Map<Long, User> found = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : ids) {
+            CachedUser cached = byId.getIfPresent(id);
+            if (cached != null && isCurrent(cached.id(), cached.version())) {
+                found.put(id, cached.toUser());
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            loader.apply(misses).forEach(user -> found.put(user.getId(), put(user)));
+        }
+        return found;
+    }
+
+    /**
+     * Like {@link #getAllById}, for usernames; the result is keyed by
+     * {@link Collation#key} of the username, since the loader's query matches
+     * usernames that differ from the requested ones in case or accents.
+     */
+    public Map<String, User> getAllByUsername(Collection<String> usernames,
+            Function<Collection<String>, List<User>> loader) {
+        Map<String, User> found = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String username : usernames) {
+            String key = Collation.key(username);
+            Long id = idByUsername.getIfPresent(key);
+            CachedUser cached = id == null ? null : byId.getIfPresent(id);
+            if (cached != null && isCurrent(cached.id(), cached.version())
+                    && key.equals(Collation.key(cached.username()))) {
+                found.put(key, cached.toUser());
+            } else {
+                misses.add(username);
+            }
+        }
+        if (!misses.isEmpty()) {
+            loader.apply(misses).forEach(user -> found.put(Collation.key(user.getUsername()), put(user)));
+        }
+        return found;
+    }
+
+    public void evict(User user) {
+        evict(user, false);
+    }
+
+    public void evictDeleted(User user) {
+        evict(user, true);
+    }
+
+    /**
+     * Batch form of {@link #evict} for set-based updates, which change rows without
+     * loading them. The invalidations carry the versions the update wrote; username
+     * and email entries need no eviction as they are only trusted when the user is cached.
+     */
+    public void evictAll(List<UserInvalidation> invalidations) {
+        List<Long> ids = invalidations.stream().map(UserInvalidation::id).toList();
+        byId.invalidateAll(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    byId.invalidateAll(ids);
+                    if (status == STATUS_COMMITTED) {
+                        invalidations.forEach(UserCache.this::committed);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Applies a peer's invalidation, its version capped at {@code currentVersion}, the
+     * user's version in the database or null if the user is gone. Returns false if it
+     * is not newer than what this node already knows.
+     */
+    public boolean applyRemote(UserInvalidation invalidation, Integer currentVersion) {
+        int version = currentVersion == null ? invalidation.version() : Math.min(invalidation.version(), currentVersion);
+        if (!raiseKnownVersion(invalidation.id(), version)) {
+            return false;
+        }
+        byId.invalidate(invalidation.id());
+        return true;
+    }
+
+    private void evict(User user, boolean deleted) {
+        Long id = user.getId();
+        String username = user.getUsername();
+        String email = user.getEmail();
+        evictKeys(id, username, email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictKeys(id, username, email);
+                    if (status == STATUS_COMMITTED) {
+                        // The managed instance carries the version Hibernate wrote on flush
+                        committed(new UserInvalidation(id, deleted ? Integer.MAX_VALUE : versionOf(user)));
+                    }
+                }
+            });
+        }
+    }
+
+    private void committed(UserInvalidation invalidation) {
+        raiseKnownVersion(invalidation.id(), invalidation.version());
+        eventPublisher.publishEvent(invalidation);
+    }
+
+    private Optional<User> getByKey(Cache<String, Long> index, String key, Function<CachedUser, String> keyOf,
+            Supplier<Optional<User>> loader) {
+        Long id = index.getIfPresent(key);
+        if (id != null) {
+            CachedUser cached = byId.getIfPresent(id);
+            // The index entry may outlive a change of this key; only trust it if the user still has it
+            if (cached != null && isCurrent(cached.id(), cached.version())
+                    && key.equals(Collation.key(keyOf.apply(cached)))) {
+                return Optional.of(cached.toUser());
+            }
+        }
+        return loader.get().map(this::put);
+    }
+
+    // Caches a copy; the loaded instance itself stays with the caller's persistence context
+    private User put(User user) {
+        if (!isCurrent(user.getId(), versionOf(user))) {
+            return user;
+        }
+        byId.put(user.getId(), CachedUser.of(user));
+        idByUsername.put(Collation.key(user.getUsername()), user.getId());
+        if (user.getEmail() != null) {
+            idByEmail.put(Collation.key(user.getEmail()), user.getId());
+        }
+        return user;
+    }
+
+    private void evictKeys(Long id, String username, String email) {
+        if (id != null) {
+            byId.invalidate(id);
+        }
+        if (username != null) {
+            idByUsername.invalidate(Collation.key(username));
+        }
+        if (email != null) {
+            idByEmail.invalidate(Collation.key(email));
+        }
+    }
+
+    private boolean isCurrent(Long id, int version) {
+        Integer known = knownVersions.getIfPresent(id);
+        return known == null || version >= known;
+    }
+
+    private boolean raiseKnownVersion(Long id, int version) {
+        int[] previous = {Integer.MIN_VALUE};
+        knownVersions.asMap().compute(id, (key, known) -> {
+            previous[0] = known == null ? Integer.MIN_VALUE : known;
+            return known == null || version > known ? version : known;
+        });
+        return version > previous[0];
+    }
+
+    private static int versionOf(User user) {
+        return user.getVersion() == null ? 0 : user.getVersion();
+    }
+
+    private static <K, V> Cache<K, V> build(long maxSize, Duration ttl) {
+        return Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.mukando.userservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * A small read-only pool for user exports, the only place that needs MySQL
+ * server-side cursors: {@code useCursorFetch} is set on these connections alone,
+ * so statements elsewhere keep the driver's defaults. Reads from the replica when
+ * one is configured. Not a default candidate, so the application's own DataSource
+ * is still auto-configured and injected everywhere else.
+ */
+@Configuration
+public class ExportDataSourceConfig {
+
+    @Bean(defaultCandidate = false)
+    public HikariDataSource exportDataSource(
+            DataSourceProperties properties,
+            @Value("${datasource.replica.url:${spring.datasource.url}}") String url,
+            @Value("${datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${datasource.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${users.export.max-connections:2}") int maxConnections) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .url(url)
+            .username(username)
+            .password(password)
+            .build();
+        dataSource.setPoolName("export");
+        dataSource.setMaximumPoolSize(maxConnections);
+        dataSource.setMinimumIdle(0);
+        dataSource.setReadOnly(true);
+        dataSource.addDataSourceProperty("useCursorFetch", "true");
+        return dataSource;
+    }
+}
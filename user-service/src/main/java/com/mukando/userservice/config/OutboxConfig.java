@@ -0,0 +1,16 @@
+package com.mukando.userservice.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.mukando.commons.outbox.OutboxTransport;
+import com.mukando.userservice.feign.AuthServiceClient;
+
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    public OutboxTransport outboxTransport(AuthServiceClient authServiceClient) {
+        return authServiceClient::deliverEvents;
+    }
+}
@@ -1,15 +1,30 @@
 package com.mukando.userservice.config;
 
+import java.net.URI;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.core.GrantedAuthorityDefaults;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import com.mukando.commons.security.JwtAuthenticationFilter;
+import com.mukando.commons.security.JwtVerifier;
+import com.mukando.commons.security.RemoteJwksKeySource;
+import com.mukando.commons.security.RevocationSync;
+import com.mukando.commons.security.Role;
+import com.mukando.commons.security.ServiceAuthenticationFilter;
+import com.mukando.commons.security.ServiceTokens;
+import com.mukando.commons.security.TokenDenyList;
+import com.mukando.commons.security.VerifiedTokenCache;
+import com.mukando.userservice.feign.AuthServiceClient;
 
 import lombok.RequiredArgsConstructor;
 
@@ -20,7 +35,9 @@ import lombok.RequiredArgsConstructor;
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtVerifier jwtVerifier,
+            VerifiedTokenCache verifiedTokenCache, TokenDenyList tokenDenyList,
+            ServiceTokens serviceTokens) throws Exception {
         http
             .csrf(AbstractHttpConfigurer::disable)
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -31,13 +48,42 @@ public class SecurityConfig {
                 .requestMatchers("/swagger-ui.html").permitAll()
                 .requestMatchers("/api/password/**").permitAll()
                 .requestMatchers("/api/users/reset-password").permitAll()
+                .requestMatchers("/actuator/health", "/actuator/info").permitAll()
+                // Service-to-service only; the gateway does not route /internal paths
+                .requestMatchers("/api/users/internal/**").hasAuthority(ServiceTokens.AUTHORITY)
                 .anyRequest().authenticated()
-            );
+            )
+            // Not beans on purpose: a Filter bean would also be registered with the servlet container
+            .addFilterBefore(new ServiceAuthenticationFilter(serviceTokens), UsernamePasswordAuthenticationFilter.class)
+            .addFilterBefore(new JwtAuthenticationFilter(jwtVerifier, verifiedTokenCache, tokenDenyList, Role.MASK),
+                UsernamePasswordAuthenticationFilter.class);
         return http.build();
     
 }
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public JwtVerifier jwtVerifier(@Value("${jwt.jwks-uri}") URI jwksUri) {
+        return new JwtVerifier(new RemoteJwksKeySource(jwksUri), Duration.ofMinutes(10));
+    }
+
+    @Bean
+    public VerifiedTokenCache verifiedTokenCache(@Value("${jwt.cache.max-size:10000}") long maxSize) {
+        return new VerifiedTokenCache(maxSize);
+    }
+
+    @Bean
+    public TokenDenyList tokenDenyList(@Value("${jwt.expiration}") long jwtExpiration) {
+        return new TokenDenyList(jwtExpiration);
     }
-}
\ No newline at end of file
+
+    @Bean
+    public RevocationSync revocationSync(TokenDenyList tokenDenyList, AuthServiceClient authServiceClient,
+            @Value("${jwt.revocation.sync-overlap:30000}") long syncOverlap) {
+        return new RevocationSync(tokenDenyList, authServiceClient::revocations, syncOverlap);
+    }
+
+    // Tokens carry bare role names (ADMIN, USER, ...), so hasRole() must not add the ROLE_ prefix
+    @Bean
+    public static GrantedAuthorityDefaults grantedAuthorityDefaults() {
+        return new GrantedAuthorityDefaults("");
+    }
+}
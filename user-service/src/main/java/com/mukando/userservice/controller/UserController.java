@@ -1,10 +1,17 @@
 package com.mukando.userservice.controller;
 
 import java.net.URI;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -16,9 +23,29 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.mukando.commons.outbox.DeliveryReport;
+import com.mukando.commons.outbox.InboxProcessor;
+import com.mukando.commons.outbox.OutboxMessage;
+import com.mukando.commons.users.UserBatchRequest;
+import com.mukando.commons.users.UserBatchResponse;
+import com.mukando.userservice.cache.UserCache;
+import com.mukando.userservice.dto.BulkRoleUpdate;
+import com.mukando.userservice.dto.BulkStatusUpdate;
+import com.mukando.userservice.dto.BulkUpdateResult;
 import com.mukando.userservice.dto.ChangePasswordRequest;
+import com.mukando.userservice.dto.CursorPage;
+import com.mukando.userservice.dto.ReconciliationReport;
+import com.mukando.userservice.dto.UserAuthorization;
+import com.mukando.userservice.dto.UserCursor;
+import com.mukando.userservice.dto.UserExportFormat;
+import com.mukando.userservice.dto.UserInvalidation;
 import com.mukando.userservice.model.User;
+import com.mukando.userservice.search.UserSearchIndex;
+import com.mukando.userservice.service.ReconciliationService;
+import com.mukando.userservice.service.UserBulkService;
+import com.mukando.userservice.service.UserExportService;
 import com.mukando.userservice.service.UserService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -39,6 +66,12 @@ import lombok.RequiredArgsConstructor;
 public class UserController {
 
     private final UserService userService;
+    private final UserExportService userExportService;
+    private final InboxProcessor inboxProcessor;
+    private final ReconciliationService reconciliationService;
+    private final UserCache userCache;
+    private final UserSearchIndex userSearchIndex;
+    private final UserBulkService userBulkService;
 
     @Operation(
         summary = "Create new user",
@@ -79,6 +112,55 @@ public class UserController {
                             .body(createdUser);
     }
 
+    @Operation(
+        summary = "Receive sync events (internal)",
+        description = "Applies a batch of events from auth-service's outbox. Already applied events are skipped; "
+            + "a failed event and the later events for its aggregate are returned for the sender to retry."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Events applied, except those reported as rejected")
+    })
+    @PostMapping("/internal/events")
+    public ResponseEntity<DeliveryReport> receiveEvents(@RequestBody List<OutboxMessage> messages) {
+        return ResponseEntity.ok(inboxProcessor.receive(messages));
+    }
+
+    @Operation(
+        summary = "Receive cache invalidations (internal)",
+        description = "Drops cached copies of users changed on another user-service instance. "
+            + "Invalidations older than the version already known are ignored; versions ahead of the "
+            + "database are capped at it."
+    )
+    @ApiResponse(responseCode = "200", description = "Invalidations applied")
+    @PostMapping("/internal/cache-invalidations")
+    public ResponseEntity<Void> receiveCacheInvalidations(@RequestBody List<UserInvalidation> invalidations) {
+        List<Long> ids = invalidations.stream().map(UserInvalidation::id).distinct().toList();
+        Map<Long, Integer> versions = userService.getVersions(ids);
+        invalidations.forEach(invalidation -> userCache.applyRemote(invalidation, versions.get(invalidation.id())));
+        // Each instance keeps its own search index, so peers' changes are re-read here too
+        userSearchIndex.enqueue(ids);
+        return ResponseEntity.ok().build();
+    }
+
+    @Operation(
+        summary = "Reconcile with auth-service",
+        description = "Diffs users against auth-service by range digests and re-sends drifted users. "
+            + "Requires ADMIN role."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Reconciliation finished",
+            content = @Content(mediaType = "application/json",
+            schema = @Schema(implementation = ReconciliationReport.class))),
+        @ApiResponse(responseCode = "409", description = "Reconciliation is already running on another instance"),
+        @ApiResponse(responseCode = "403", description = "Insufficient permissions"),
+        @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    @PostMapping("/reconciliation")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReconciliationReport> reconcile() {
+        return ResponseEntity.ok(reconciliationService.reconcile());
+    }
+
     @Operation(
         summary = "Change user password",
         description = "Change password for authenticated user. Requires current password."
@@ -161,6 +243,27 @@ public class UserController {
         return ResponseEntity.ok(userService.getUserById(id));
     }
 
+    @Operation(
+        summary = "Get users in bulk",
+        description = "Looks up to 500 users by id and/or username in one call, from cache where possible and "
+            + "otherwise with one query per kind of key. Users come back in request order; usernames match "
+            + "regardless of case and accents. Ids and usernames that match no user are listed in "
+            + "missingIds and missingUsernames. Requires ADMIN or SERVICE role."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Users retrieved",
+            content = @Content(mediaType = "application/json",
+            schema = @Schema(implementation = UserBatchResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Too many ids and usernames"),
+        @ApiResponse(responseCode = "403", description = "Insufficient permissions"),
+        @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SERVICE')")
+    public ResponseEntity<UserBatchResponse> getUsers(@RequestBody UserBatchRequest request) {
+        return ResponseEntity.ok(userService.getUsers(request));
+    }
+
     @Operation(
         summary = "List all users",
         description = "Get paginated list of all users. Requires ADMIN role."
@@ -178,6 +281,112 @@ public class UserController {
         return ResponseEntity.ok(userService.getAllUsers(pageable));
     }
 
+    @Operation(
+        summary = "Search users",
+        description = "Ranked full-text search over username, name, email, phone, city and country. "
+            + "Partial words and partial phone numbers match. Only the first 1000 hits can be paged through. "
+            + "Requires ADMIN role."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Matching users, best match first",
+            content = @Content(mediaType = "application/json",
+            schema = @Schema(implementation = Page.class))),
+        @ApiResponse(responseCode = "400", description = "Query too long or page beyond the result window"),
+        @ApiResponse(responseCode = "403", description = "Insufficient permissions"),
+        @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Page<User>> searchUsers(
+        @Parameter(description = "Search text", required = true)
+        @RequestParam String q,
+        Pageable pageable) {
+        return ResponseEntity.ok(userService.searchUsers(q, pageable));
+    }
+
+    @Operation(
+        summary = "Rebuild search index",
+        description = "Re-reads all users into this instance's search index in the background. "
+            + "Searches keep working while it runs. Requires ADMIN role."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "202", description = "Rebuild started"),
+        @ApiResponse(responseCode = "409", description = "A rebuild is already running"),
+        @ApiResponse(responseCode = "403", description = "Insufficient permissions"),
+        @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    @PostMapping("/search/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> rebuildSearchIndex() {
+        return userSearchIndex.startRebuild()
+            ? ResponseEntity.accepted().build()
+            : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    @Operation(
+        summary = "List users by cursor",
+        description = "Keyset-paged listing sorted by id or by createdDate then id. Pass nextCursor from the "
+            + "previous response to continue; it is null on the last page. No total count is computed. "
+            + "Requires ADMIN role."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "User page retrieved",
+            content = @Content(mediaType = "application/json",
+            schema = @Schema(implementation = CursorPage.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or sort"),
+        @ApiResponse(responseCode = "403", description = "Insufficient permissions"),
+        @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<User>> scrollUsers(
+        @Parameter(description = "Sort key: id or createdDate")
+        @RequestParam(defaultValue = "id") String sort,
+        @Parameter(description = "Opaque cursor from the previous page")
+        @RequestParam(required = false) String cursor,
+        @Parameter(description = "Page size, at most 500")
+        @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(userService.getUsersAfter(UserCursor.Order.fromParam(sort), cursor, size));
+    }
+
+    @Operation(
+        summary = "Export users",
+        description = "Streams every user as NDJSON or CSV without buffering the result set. Passwords are "
+            + "never included. Set gzip=true to receive a gzip-compressed body. Requires ADMIN role."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Export streamed"),
+        @ApiResponse(responseCode = "400", description = "Unsupported format"),
+        @ApiResponse(responseCode = "403", description = "Insufficient permissions"),
+        @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+        @Parameter(description = "Output format: ndjson or csv")
+        @RequestParam(defaultValue = "ndjson") String format,
+        @Parameter(description = "Compress the response with gzip")
+        @RequestParam(defaultValue = "false") boolean gzip) {
+        UserExportFormat exportFormat = UserExportFormat.fromParam(format);
+        StreamingResponseBody body = out -> {
+            if (!gzip) {
+                userExportService.export(exportFormat, out);
+                return;
+            }
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 8192);
+            userExportService.export(exportFormat, compressed);
+            compressed.finish();
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("users." + exportFormat.extension()).build().toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     @Operation(
         summary = "Assign user roles",
         description = "Assign roles to a user. Requires ADMIN role."
@@ -200,6 +409,46 @@ public class UserController {
         return ResponseEntity.ok(userService.assignRoles(id, roles));
     }
 
+    @Operation(
+        summary = "Change roles in bulk",
+        description = "Sets, adds or removes roles for the users given by ids (at most 10000) or matched by a "
+            + "filter, with set-based updates in batches that commit one by one. Requires ADMIN role."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "All batches applied",
+            content = @Content(mediaType = "application/json",
+            schema = @Schema(implementation = BulkUpdateResult.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid roles, or not exactly one of ids and filter"),
+        @ApiResponse(responseCode = "500", description = "A batch failed; the body shows what was already applied"),
+        @ApiResponse(responseCode = "403", description = "Insufficient permissions"),
+        @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    @PutMapping("/bulk/roles")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkUpdateResult> updateRolesInBulk(@RequestBody BulkRoleUpdate request) {
+        return bulkResponse(userBulkService.updateRoles(request));
+    }
+
+    @Operation(
+        summary = "Update status in bulk",
+        description = "Activates or deactivates the users given by ids (at most 10000) or matched by a filter, "
+            + "with set-based updates in batches that commit one by one. Requires ADMIN role."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "All batches applied",
+            content = @Content(mediaType = "application/json",
+            schema = @Schema(implementation = BulkUpdateResult.class))),
+        @ApiResponse(responseCode = "400", description = "Not exactly one of ids and filter"),
+        @ApiResponse(responseCode = "500", description = "A batch failed; the body shows what was already applied"),
+        @ApiResponse(responseCode = "403", description = "Insufficient permissions"),
+        @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    @PutMapping("/bulk/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkUpdateResult> updateStatusInBulk(@RequestBody BulkStatusUpdate request) {
+        return bulkResponse(userBulkService.updateStatus(request));
+    }
+
     @Operation(
         summary = "Update user status",
         description = "Activate or deactivate a user account. Requires ADMIN role."
@@ -321,4 +570,49 @@ public class UserController {
         @PathVariable Long id) {
         return ResponseEntity.ok(userService.isUserAdmin(id));
     }
+
+    @Operation(
+        summary = "Get authorization snapshot",
+        description = "Returns roles, enabled and locked flags, admin status and version in one narrow read. "
+            + "Users can view their own, admins can view any."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Snapshot retrieved",
+            content = @Content(mediaType = "application/json",
+            schema = @Schema(implementation = UserAuthorization.class))),
+        @ApiResponse(responseCode = "404", description = "User not found"),
+        @ApiResponse(responseCode = "403", description = "Insufficient permissions"),
+        @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    @GetMapping("/{id}/authz")
+    @PreAuthorize("#id == authentication.principal.id or hasRole('ADMIN')")
+    public ResponseEntity<UserAuthorization> getAuthorization(
+        @Parameter(description = "ID of the user", required = true)
+        @PathVariable Long id) {
+        return ResponseEntity.ok(userService.getAuthorization(id));
+    }
+
+    @Operation(
+        summary = "Get authorization snapshots in bulk",
+        description = "Returns authorization snapshots for up to 500 users in one query. Unknown ids are omitted. "
+            + "Requires ADMIN role."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Snapshots retrieved"),
+        @ApiResponse(responseCode = "400", description = "Too many ids"),
+        @ApiResponse(responseCode = "403", description = "Insufficient permissions"),
+        @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    @GetMapping("/authz")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<UserAuthorization>> getAuthorizations(
+        @Parameter(description = "IDs of the users", required = true)
+        @RequestParam Set<Long> ids) {
+        return ResponseEntity.ok(userService.getAuthorizations(ids));
+    }
+
+    private static ResponseEntity<BulkUpdateResult> bulkResponse(BulkUpdateResult result) {
+        return ResponseEntity.status(result.complete() ? HttpStatus.OK : HttpStatus.INTERNAL_SERVER_ERROR)
+            .body(result);
+    }
 }
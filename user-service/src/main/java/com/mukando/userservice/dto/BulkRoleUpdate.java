@@ -0,0 +1,22 @@
+package com.mukando.userservice.dto;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Changes the roles of the users given by {@code ids} or matched by {@code filter} (one of the two).
+ * {@code SET} replaces each user's roles, {@code ADD} and {@code REMOVE} leave their other roles alone.
+ */
+public record BulkRoleUpdate(
+    List<Long> ids,
+    UserFilter filter,
+    Change change,
+    Set<String> roles
+) {
+    public enum Change { SET, ADD, REMOVE }
+
+    public BulkRoleUpdate {
+        change = change == null ? Change.SET : change;
+        roles = roles == null ? Set.of() : roles;
+    }
+}
@@ -0,0 +1,12 @@
+package com.mukando.userservice.dto;
+
+import java.util.List;
+
+/**
+ * Enables or disables the users given by {@code ids} or matched by {@code filter} (one of the two).
+ */
+public record BulkStatusUpdate(
+    List<Long> ids,
+    UserFilter filter,
+    boolean enabled
+) {}
@@ -0,0 +1,14 @@
+package com.mukando.userservice.dto;
+
+/**
+ * How far a bulk change got. Batches commit one by one: if one fails, {@code complete}
+ * is false, {@code error} says how far it got (the cause is only logged), and the
+ * counts cover the batches already committed.
+ */
+public record BulkUpdateResult(
+    long matched,
+    long updated,
+    int batches,
+    boolean complete,
+    String error
+) {}
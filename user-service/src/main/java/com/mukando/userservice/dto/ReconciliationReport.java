@@ -0,0 +1,11 @@
+package com.mukando.userservice.dto;
+
+public record ReconciliationReport(
+    long usersScanned,
+    long rangesCompared,
+    long rangesDiffed,
+    long missingInAuth,
+    long mismatched,
+    long orphanedInAuth,
+    boolean repaired
+) {}
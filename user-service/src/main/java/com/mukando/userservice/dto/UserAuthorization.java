@@ -0,0 +1,12 @@
+package com.mukando.userservice.dto;
+
+import java.util.Set;
+
+public record UserAuthorization(
+    Long id,
+    Set<String> roles,
+    boolean enabled,
+    boolean locked,
+    boolean admin,
+    Integer version
+) {}
@@ -0,0 +1,64 @@
+package com.mukando.userservice.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import com.mukando.commons.exception.BadRequestException;
+
+/**
+ * Position of the last row returned by a keyset listing. Clients only ever see the
+ * opaque {@link #encode()} form and hand it back unchanged to fetch the next page.
+ */
+public record UserCursor(
+    Order order,
+    LocalDateTime createdDate,
+    Long id
+) {
+
+    public enum Order {
+        ID("id"),
+        CREATED_DATE("createdDate");
+
+        private final String param;
+
+        Order(String param) {
+            this.param = param;
+        }
+
+        public static Order fromParam(String param) {
+            for (Order order : values()) {
+                if (order.param.equals(param)) {
+                    return order;
+                }
+            }
+            throw new BadRequestException("Unsupported sort '" + param + "', expected 'id' or 'createdDate'");
+        }
+    }
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = order == Order.ID
+            ? order.name() + SEPARATOR + id
+            : order.name() + SEPARATOR + createdDate + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static UserCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            Order order = Order.valueOf(parts[0]);
+            if (order == Order.ID && parts.length == 2) {
+                return new UserCursor(order, null, Long.valueOf(parts[1]));
+            }
+            if (order == Order.CREATED_DATE && parts.length == 3) {
+                return new UserCursor(order, LocalDateTime.parse(parts[1]), Long.valueOf(parts[2]));
+            }
+        } catch (RuntimeException e) {
+            // fall through to the uniform error below
+        }
+        throw new BadRequestException("Invalid cursor");
+    }
+}
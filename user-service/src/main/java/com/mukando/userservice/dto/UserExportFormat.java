@@ -0,0 +1,33 @@
+package com.mukando.userservice.dto;
+
+import com.mukando.commons.exception.BadRequestException;
+
+public enum UserExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    UserExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static UserExportFormat fromParam(String param) {
+        for (UserExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(param)) {
+                return format;
+            }
+        }
+        throw new BadRequestException("Unsupported export format '" + param + "', expected 'ndjson' or 'csv'");
+    }
+}
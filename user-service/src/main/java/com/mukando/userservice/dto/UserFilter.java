@@ -0,0 +1,56 @@
+package com.mukando.userservice.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.mukando.commons.exception.BadRequestException;
+import com.mukando.commons.security.Role;
+import com.mukando.userservice.model.User;
+
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Selects users for a bulk change; every field given must match, omitted fields match anything.
+ */
+public record UserFilter(
+    Boolean enabled,
+    String role,
+    String city,
+    String country,
+    LocalDateTime createdBefore
+) {
+    public boolean isEmpty() {
+        return enabled == null && role == null && city == null && country == null && createdBefore == null;
+    }
+
+    public Specification<User> toSpecification() {
+        int roleBit = role == null ? 0 : Role.MASK.bit(role.toUpperCase(Locale.ROOT));
+        if (role != null && roleBit == 0) {
+            throw new BadRequestException("Unknown role: " + role);
+        }
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (enabled != null) {
+                predicates.add(cb.equal(root.get("enabled"), enabled));
+            }
+            if (role != null) {
+                predicates.add(cb.notEqual(
+                    cb.function("bitand", Integer.class, root.get("rolesMask"), cb.literal(roleBit)), 0));
+            }
+            if (city != null) {
+                predicates.add(cb.equal(root.get("city"), city));
+            }
+            if (country != null) {
+                predicates.add(cb.equal(root.get("country"), country));
+            }
+            if (createdBefore != null) {
+                predicates.add(cb.lessThan(root.get("createdDate"), createdBefore));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
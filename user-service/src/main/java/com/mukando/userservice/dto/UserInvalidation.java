@@ -0,0 +1,6 @@
+package com.mukando.userservice.dto;
+
+/**
+ * A committed change to user {@code id}; copies cached with a lower version are stale.
+ */
+public record UserInvalidation(Long id, int version) {}
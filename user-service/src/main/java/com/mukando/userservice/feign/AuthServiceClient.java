@@ -1,19 +1,33 @@
 package com.mukando.userservice.feign;
 
+import java.util.List;
+
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import com.mukando.userservice.dto.AuthRegistrationRequest;
+import com.mukando.commons.outbox.DeliveryReport;
+import com.mukando.commons.outbox.OutboxMessage;
+import com.mukando.commons.security.Revocations;
+import com.mukando.commons.sync.RangeDigest;
+import com.mukando.commons.sync.UserSnapshot;
 
 @FeignClient(name = "auth-service")
 public interface AuthServiceClient {
 
-    @PostMapping("/auth/internal/register")
-    void registerUser(@RequestBody AuthRegistrationRequest request);
+    @PostMapping("/auth/internal/events")
+    DeliveryReport deliverEvents(@RequestBody List<OutboxMessage> messages);
+
+    @GetMapping("/auth/internal/reconcile/digest")
+    RangeDigest rangeDigest(@RequestParam("after") String after,
+            @RequestParam(value = "upTo", required = false) String upTo);
+
+    @GetMapping("/auth/internal/reconcile/rows")
+    List<UserSnapshot> rangeRows(@RequestParam("after") String after,
+            @RequestParam(value = "upTo", required = false) String upTo);
 
-    @PutMapping("/auth/internal/password")
-    void updatePassword(@RequestParam String username, @RequestBody String newPassword);
+    @GetMapping("/auth/internal/revocations")
+    Revocations revocations(@RequestParam("since") long since);
 }
@@ -0,0 +1,19 @@
+package com.mukando.userservice.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import com.mukando.commons.jpa.JdbcSchema;
+
+/**
+ * Backs the createdDate keyset listing; id breaks ties between users created in
+ * the same instant.
+ */
+public class V4__Users_created_date_index extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        new JdbcSchema(context.getConnection())
+            .createIndexIfMissing("mukando_users", "idx_users_created_date_id", "created_date, id");
+    }
+}
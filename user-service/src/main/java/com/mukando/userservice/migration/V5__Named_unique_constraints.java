@@ -0,0 +1,22 @@
+package com.mukando.userservice.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import com.mukando.commons.jpa.JdbcSchema;
+
+/**
+ * Replaces the hash-named unique keys ddl-auto created with named ones, so
+ * GlobalExceptionHandler can tell from a violation which value was taken.
+ */
+public class V5__Named_unique_constraints extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        JdbcSchema schema = new JdbcSchema(context.getConnection());
+        schema.renameUniqueConstraint("mukando_users", "username", "uk_users_username");
+        schema.renameUniqueConstraint("mukando_users", "email", "uk_users_email");
+        schema.renameUniqueConstraint("mukando_users", "phone_number", "uk_users_phone_number");
+        schema.renameUniqueConstraint("password_reset_tokens", "user_id", "uk_password_reset_tokens_user_id");
+    }
+}
@@ -0,0 +1,27 @@
+package com.mukando.userservice.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import com.mukando.commons.jpa.JdbcSchema;
+
+/**
+ * Indexes for repository lookups that were table scans, including those of the
+ * tables V3 creates: added here, by name, because those tables may already exist
+ * from ddl-auto. MySQL has no partial indexes, so the soft-delete flag leads the
+ * outbox index instead.
+ */
+public class V6__Lookup_indexes extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        JdbcSchema schema = new JdbcSchema(context.getConnection());
+        // PasswordResetTokenRepository.findByToken; tokens are random UUIDs
+        schema.addUniqueConstraintIfMissing("password_reset_tokens", "uk_password_reset_tokens_token", "token");
+        // OutboxEventRepository.findClaimableHeads: deleted = false and next_attempt_at <= now order by id
+        schema.createIndexIfMissing("outbox_events", "idx_outbox_events_pending", "deleted, id");
+        schema.createIndexIfMissing("outbox_events", "idx_outbox_events_next_attempt_at", "next_attempt_at");
+        // ProcessedEventRepository.deleteProcessedBefore
+        schema.createIndexIfMissing("processed_events", "idx_processed_events_created_date", "created_date");
+    }
+}
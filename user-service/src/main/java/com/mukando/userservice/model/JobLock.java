@@ -0,0 +1,31 @@
+package com.mukando.userservice.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A lease on a job that must run on one instance at a time. An instance holds the
+ * lock while lockedUntil is in the future; a crashed holder's lease simply runs out.
+ */
+@Entity
+@Table(name = "job_locks")
+@Data
+@NoArgsConstructor
+public class JobLock {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(name = "locked_by", length = 64)
+    private String lockedBy;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+}
@@ -13,12 +13,16 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "password_reset_tokens")
+@Table(name = "password_reset_tokens", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_password_reset_tokens_token", columnNames = "token"),
+    @UniqueConstraint(name = "uk_password_reset_tokens_user_id", columnNames = "user_id")
+})
 @NoArgsConstructor
 @Data
 @AllArgsConstructor
@@ -1,12 +0,0 @@
-package com.mukando.userservice.model;
-
-public enum Role {
-    USER,
-    ADMIN,
-    PRESIDENT,
-    MODERATOR,
-    SUPERADMIN,
-    TREASURER,
-    MEMBER,
-    GUEST
-}
\ No newline at end of file
@@ -1,27 +1,26 @@
 package com.mukando.userservice.model;
 
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Set;
 
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.mukando.commons.jpa.BaseEntity;
+import com.mukando.commons.security.Role;
+import com.mukando.userservice.search.UserSearchListener;
 
 import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
-import jakarta.persistence.EnumType;
-import jakarta.persistence.Enumerated;
-import jakarta.persistence.FetchType;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.Email;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -32,7 +31,16 @@ import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "mukando_users")
+@EntityListeners(UserSearchListener.class)
+@Table(name = "mukando_users", uniqueConstraints = {
+    // Named so GlobalExceptionHandler can tell which value was taken
+    @UniqueConstraint(name = "uk_users_username", columnNames = "username"),
+    @UniqueConstraint(name = "uk_users_email", columnNames = "email"),
+    @UniqueConstraint(name = "uk_users_phone_number", columnNames = "phone_number")
+}, indexes = {
+    // Backs the createdDate keyset listing; id breaks ties between rows created in the same instant
+    @Index(name = "idx_users_created_date_id", columnList = "created_date, id")
+})
 @Data
 @Setter
 @Getter
@@ -47,7 +55,7 @@ public class User extends BaseEntity implements UserDetails {
     @Schema(description = "Unique identifier of the user")
     private Long id;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     @Schema(description = "Username of the user", example = "john_doe")
     private String username;
 
@@ -55,12 +63,16 @@ public class User extends BaseEntity implements UserDetails {
     @Schema(description = "Encrypted password of the user", accessMode=Schema.AccessMode.READ_ONLY)
     private String password;
 
-    @Column(nullable = false, unique = true)
+    // Bumped on every password change, so reconciliation can tell whether auth-service has the latest
+    @Column(name = "password_version", nullable = false)
+    @JsonIgnore
+    private int passwordVersion;
+
+    @Column(nullable = false)
     @Schema(description = "Email address of the user")
     @Email
     private String email;
 
-    @Column(unique = true)
     @Schema(description = "Phone number of the user", example = "+263774567890")
     private String phoneNumber;
 
@@ -82,17 +94,23 @@ public class User extends BaseEntity implements UserDetails {
     @Builder.Default
     private boolean credentialsNonExpired = true;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
-    @Enumerated(EnumType.STRING)
-    @Builder.Default
-    private Set<Role> roles = new HashSet<>();
+    // Bit n set = Role with ordinal n; see Role.MASK. Exposed to clients as "roles"
+    @Column(name = "roles_mask", nullable = false)
+    @JsonIgnore
+    private int rolesMask;
+
+    @Schema(description = "Roles assigned to the user")
+    public Set<Role> getRoles() {
+        return Role.MASK.decode(rolesMask);
+    }
+
+    public void setRoles(Set<Role> roles) {
+        this.rolesMask = Role.MASK.encode(roles);
+    }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return roles.stream()
-            .map(role -> (GrantedAuthority) role::name)
-            .toList();
+        return Role.MASK.authorities(rolesMask);
     }
     
     @Override
@@ -100,4 +118,15 @@ public class User extends BaseEntity implements UserDetails {
         return username;
     }
 
-}
\ No newline at end of file
+    public void changePassword(String encodedPassword) {
+        this.password = encodedPassword;
+        this.passwordVersion++;
+    }
+
+    public static class UserBuilder {
+        public UserBuilder roles(Set<Role> roles) {
+            this.rolesMask = Role.MASK.encode(roles);
+            return this;
+        }
+    }
+}
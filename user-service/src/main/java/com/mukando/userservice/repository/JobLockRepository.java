@@ -0,0 +1,34 @@
+package com.mukando.userservice.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mukando.userservice.model.JobLock;
+
+@Repository
+public interface JobLockRepository extends JpaRepository<JobLock, String> {
+
+    // One conditional update: of several instances racing for a free lease, exactly one matches
+    @Transactional
+    @Modifying
+    @Query("update JobLock l set l.lockedBy = :owner, l.lockedUntil = :until"
+        + " where l.name = :name and (l.lockedUntil is null or l.lockedUntil < :now)")
+    int acquire(@Param("name") String name, @Param("owner") String owner,
+                @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    @Transactional
+    @Modifying
+    @Query("update JobLock l set l.lockedUntil = :until where l.name = :name and l.lockedBy = :owner")
+    int extend(@Param("name") String name, @Param("owner") String owner, @Param("until") LocalDateTime until);
+
+    @Transactional
+    @Modifying
+    @Query("update JobLock l set l.lockedUntil = null where l.name = :name and l.lockedBy = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
@@ -1,8 +1,17 @@
 package com.mukando.userservice.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.mukando.commons.jpa.BaseDao;
 import com.mukando.userservice.model.User;
@@ -13,4 +22,56 @@ public interface UserRepository extends BaseDao<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    @Query("select u.username from User u where u.username > :after order by u.username")
+    List<String> findUsernamesAfter(@Param("after") String after, Pageable pageable);
+
+    // Ordered by username, for users in the key range (after, upTo]
+    @Query("select u.username, u.email, u.firstName, u.lastName, u.phoneNumber, u.address, u.city, u.country, "
+        + "u.enabled, u.rolesMask, u.passwordVersion from User u "
+        + "where u.username > :after and (:upTo is null or u.username <= :upTo) order by u.username")
+    List<Object[]> findSnapshotRows(@Param("after") String after, @Param("upTo") String upTo);
+
+    // Only the columns a permission check needs, for ids in the batch
+    @Query("select u.id, u.enabled, u.accountNonLocked, u.version, u.rolesMask from User u where u.id in :ids")
+    List<Object[]> findAuthorizationRows(@Param("ids") Collection<Long> ids);
+
+    // Outside a read-only transaction, so it reads the primary: a lagging replica would understate versions
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @Query("select u.id, coalesce(u.version, 0) from User u where u.id in :ids")
+    List<Object[]> findVersions(@Param("ids") Collection<Long> ids);
+
+    // Keyset listing: ids only; the page is then loaded with findAllByIdIn
+    @Query("select u.id from User u where u.id > :afterId order by u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select u.id from User u order by u.createdDate, u.id")
+    List<Long> findIdsByCreatedDate(Pageable pageable);
+
+    @Query("select u.id from User u where u.createdDate > :afterDate "
+        + "or (u.createdDate = :afterDate and u.id > :afterId) order by u.createdDate, u.id")
+    List<Long> findIdsByCreatedDateAfter(@Param("afterDate") LocalDateTime afterDate,
+        @Param("afterId") Long afterId, Pageable pageable);
+
+    List<User> findAllByIdIn(Collection<Long> ids);
+
+    List<User> findAllByUsernameIn(Collection<String> usernames);
+
+    // findSnapshotRows' columns followed by id and version, for users changed by a bulk update
+    @Query("select u.username, u.email, u.firstName, u.lastName, u.phoneNumber, u.address, u.city, u.country, "
+        + "u.enabled, u.rolesMask, u.passwordVersion, u.id, u.version from User u where u.id in :ids")
+    List<Object[]> findSnapshotRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Set-based bulk updates; the version is bumped by hand so caches and peers see the rows as changed
+    @Modifying
+    @Query("update User u set u.enabled = :enabled, u.version = coalesce(u.version, 0) + 1, "
+        + "u.lastModifiedDate = :now where u.id in :ids")
+    int updateEnabled(@Param("ids") Collection<Long> ids, @Param("enabled") boolean enabled,
+        @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update User u set u.rolesMask = :rolesMask, u.version = coalesce(u.version, 0) + 1, "
+        + "u.lastModifiedDate = :now where u.id in :ids")
+    int updateRolesMask(@Param("ids") Collection<Long> ids, @Param("rolesMask") int rolesMask,
+        @Param("now") LocalDateTime now);
+}
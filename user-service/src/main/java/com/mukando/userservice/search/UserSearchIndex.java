@@ -0,0 +1,364 @@
+package com.mukando.userservice.search;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.KeywordTokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ngram.EdgeNGramTokenFilter;
+import org.apache.lucene.analysis.ngram.NGramTokenFilter;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.util.CharTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mukando.commons.datasource.ReadYourWrites;
+import com.mukando.userservice.model.User;
+import com.mukando.userservice.repository.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process Lucene index over the searchable user fields. Every instance keeps its
+ * own copy: it is rebuilt on startup and kept current by re-reading the users that
+ * changed, whether the change committed here ({@link UserSearchListener}) or on a
+ * peer (cache invalidations). Text fields are indexed as edge n-grams so partial
+ * names match with plain term queries; phone numbers are indexed as digit n-grams.
+ */
+@Slf4j
+@Component
+public class UserSearchIndex {
+
+    public record Hits(List<Long> ids, long totalHits) {}
+
+    private static final String ID = "id";
+    private static final String GENERATION = "generation";
+    private static final String USERNAME = "username";
+    private static final String USERNAME_EXACT = "username_exact";
+    private static final String EMAIL = "email";
+    private static final String EMAIL_EXACT = "email_exact";
+    private static final String NAME = "name";
+    private static final String PHONE = "phone";
+    private static final String CITY = "city";
+    private static final String COUNTRY = "country";
+
+    private static final Map<String, Float> TEXT_FIELD_BOOSTS = Map.of(
+        USERNAME, 3f, NAME, 2f, EMAIL, 2f, CITY, 1f, COUNTRY, 1f);
+    private static final int MAX_GRAM = 20;
+    private static final int MIN_PHONE_GRAM = 3;
+    private static final int MAX_PHONE_GRAM = 15;
+    private static final int MAX_QUERY_TERMS = 8;
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int rebuildChunkSize;
+    private final Analyzer queryAnalyzer = textAnalyzer(false);
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // Rebuilds block on JDBC for their whole run, so they get a thread of their own
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-search-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Timer searchTimer;
+    private long generation;
+
+    public UserSearchIndex(
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${users.search.index-dir:}") String indexDir,
+            @Value("${users.search.rebuild-chunk-size:1000}") int rebuildChunkSize,
+            MeterRegistry meterRegistry
+    ) throws IOException {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rebuildChunkSize = rebuildChunkSize;
+        this.directory = indexDir.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexDir));
+        Analyzer indexAnalyzer = new PerFieldAnalyzerWrapper(textAnalyzer(true), Map.of(PHONE, phoneAnalyzer()));
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(indexAnalyzer)
+            .setOpenMode(IndexWriterConfig.OpenMode.CREATE));
+        this.searcherManager = new SearcherManager(writer, null);
+        this.searchTimer = Timer.builder("users.search").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        startRebuild();
+    }
+
+    public void enqueue(Collection<Long> ids) {
+        pending.addAll(ids);
+    }
+
+    /**
+     * Re-reads every user into the index in the background. Searches keep working
+     * throughout; documents of users no longer present are dropped once the walk
+     * completes. Returns false if a rebuild is already running.
+     */
+    public boolean startRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        rebuildExecutor.execute(() -> {
+            try {
+                rebuild();
+            } catch (IOException | RuntimeException e) {
+                log.error("User search index rebuild failed", e);
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+        return true;
+    }
+
+    private void rebuild() throws IOException {
+        long started = System.nanoTime();
+        long target = startGeneration();
+        long afterId = 0L;
+        long indexed = 0;
+        List<Long> ids;
+        do {
+            long from = afterId;
+            ids = ReadYourWrites.primary(() ->
+                userRepository.findIdsAfter(from, PageRequest.of(0, rebuildChunkSize)));
+            if (!ids.isEmpty()) {
+                indexed += reindex(ids);
+                afterId = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == rebuildChunkSize);
+        finishGeneration(target);
+        log.info("Rebuilt user search index with {} users in {} ms", indexed,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    @Scheduled(fixedDelayString = "${users.search.refresh-interval:500}")
+    public void applyPending() throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Long> batch = new ArrayList<>(pending.size());
+        for (Long id : pending) {
+            if (pending.remove(id)) {
+                batch.add(id);
+            }
+        }
+        reindex(batch);
+    }
+
+    public Hits search(String text, int offset, int limit) throws IOException {
+        Query query = buildQuery(text);
+        if (query == null) {
+            return new Hits(List.of(), 0);
+        }
+        long started = System.nanoTime();
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs top = searcher.search(query, offset + limit);
+            List<Long> ids = new ArrayList<>(limit);
+            for (int i = offset; i < top.scoreDocs.length; i++) {
+                ScoreDoc hit = top.scoreDocs[i];
+                ids.add(Long.valueOf(searcher.storedFields().document(hit.doc).get(ID)));
+            }
+            return new Hits(ids, top.totalHits.value);
+        } finally {
+            searcherManager.release(searcher);
+            searchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        rebuildExecutor.shutdownNow();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    // Reads and writes under one lock, so a chunk read before a concurrent delete cannot be written after it.
+    // Reads go to the primary: a lagging replica would index old rows and drop users it has not received yet
+    private synchronized int reindex(Collection<Long> ids) throws IOException {
+        List<User> users = ReadYourWrites.primary(() ->
+            readOnlyTransaction.execute(status -> userRepository.findAllByIdIn(ids)));
+        Set<Long> found = new HashSet<>();
+        for (User user : users) {
+            found.add(user.getId());
+            writer.updateDocument(new Term(ID, user.getId().toString()), toDocument(user, generation));
+        }
+        for (Long id : ids) {
+            if (!found.contains(id)) {
+                writer.deleteDocuments(new Term(ID, id.toString()));
+            }
+        }
+        searcherManager.maybeRefresh();
+        return users.size();
+    }
+
+    private synchronized long startGeneration() {
+        return ++generation;
+    }
+
+    private synchronized void finishGeneration(long target) throws IOException {
+        writer.deleteDocuments(LongPoint.newRangeQuery(GENERATION, Long.MIN_VALUE, target - 1));
+        writer.commit();
+        searcherManager.maybeRefresh();
+    }
+
+    private Query buildQuery(String text) throws IOException {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            return null;
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms.subList(0, Math.min(terms.size(), MAX_QUERY_TERMS))) {
+            // Every term has to match some field; which fields it matched decides the score
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+            String gram = term.length() > MAX_GRAM ? term.substring(0, MAX_GRAM) : term;
+            TEXT_FIELD_BOOSTS.forEach((field, boost) ->
+                anyField.add(new BoostQuery(new TermQuery(new Term(field, gram)), boost), Occur.SHOULD));
+            String digits = digitsOf(term);
+            if (digits.length() >= MIN_PHONE_GRAM) {
+                String phoneGram = digits.length() > MAX_PHONE_GRAM ? digits.substring(0, MAX_PHONE_GRAM) : digits;
+                anyField.add(new BoostQuery(new TermQuery(new Term(PHONE, phoneGram)), 2f), Occur.SHOULD);
+            }
+            query.add(anyField.build(), Occur.MUST);
+        }
+        String exact = text.trim().toLowerCase(Locale.ROOT);
+        query.add(new BoostQuery(new TermQuery(new Term(USERNAME_EXACT, exact)), 10f), Occur.SHOULD);
+        query.add(new BoostQuery(new TermQuery(new Term(EMAIL_EXACT, exact)), 10f), Occur.SHOULD);
+        return query.build();
+    }
+
+    private List<String> analyze(String text) throws IOException {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = queryAnalyzer.tokenStream(NAME, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        }
+        return terms;
+    }
+
+    private static Document toDocument(User user, long generation) {
+        Document document = new Document();
+        document.add(new StringField(ID, user.getId().toString(), Field.Store.YES));
+        document.add(new LongPoint(GENERATION, generation));
+        addText(document, USERNAME, user.getUsername());
+        addText(document, EMAIL, user.getEmail());
+        addText(document, NAME, join(user.getFirstName(), user.getLastName()));
+        addText(document, CITY, user.getCity());
+        addText(document, COUNTRY, user.getCountry());
+        if (user.getUsername() != null) {
+            document.add(new StringField(USERNAME_EXACT, user.getUsername().toLowerCase(Locale.ROOT), Field.Store.NO));
+        }
+        if (user.getEmail() != null) {
+            document.add(new StringField(EMAIL_EXACT, user.getEmail().toLowerCase(Locale.ROOT), Field.Store.NO));
+        }
+        if (user.getPhoneNumber() != null) {
+            document.add(new TextField(PHONE, digitsOf(user.getPhoneNumber()), Field.Store.NO));
+        }
+        return document;
+    }
+
+    private static void addText(Document document, String field, String value) {
+        if (value != null && !value.isBlank()) {
+            document.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    private static String join(String first, String last) {
+        if (first == null) {
+            return last;
+        }
+        return last == null ? first : first + " " + last;
+    }
+
+    private static String digitsOf(String value) {
+        StringBuilder digits = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    private static Analyzer textAnalyzer(boolean edgeGrams) {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                Tokenizer tokenizer = CharTokenizer.fromSeparatorCharPredicate(c -> !Character.isLetterOrDigit(c));
+                TokenStream stream = new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer));
+                if (edgeGrams) {
+                    stream = new EdgeNGramTokenFilter(stream, 1, MAX_GRAM, true);
+                }
+                return new TokenStreamComponents(tokenizer, stream);
+            }
+        };
+    }
+
+    private static Analyzer phoneAnalyzer() {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                Tokenizer tokenizer = new KeywordTokenizer();
+                return new TokenStreamComponents(tokenizer,
+                    new NGramTokenFilter(tokenizer, MIN_PHONE_GRAM, MAX_PHONE_GRAM, true));
+            }
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.mukando.userservice.search;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.mukando.userservice.model.User;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Queues users for re-indexing once the transaction that changed them commits.
+ * Registered as a JPA entity listener so creates, updates and deletes are caught
+ * on every write path; the index is resolved lazily because Hibernate creates
+ * listeners while the repositories it depends on are still being built.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserSearchListener {
+
+    private final ObjectProvider<UserSearchIndex> searchIndex;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(User user) {
+        Long id = user.getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            searchIndex.getObject().enqueue(List.of(id));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                searchIndex.getObject().enqueue(List.of(id));
+            }
+        });
+    }
+}
@@ -7,10 +7,12 @@ import org.springframework.transaction.annotation.Transactional;
 import com.mukando.commons.exception.ResourceNotFoundException;
 import com.mukando.commons.exception.TokenExpiredException;
 import com.mukando.commons.exception.TokenNotFoundException;
+import com.mukando.userservice.cache.UserCache;
 import com.mukando.userservice.model.PasswordResetToken;
 import com.mukando.userservice.model.User;
 import com.mukando.userservice.repository.PasswordResetTokenRepository;
 import com.mukando.userservice.repository.UserRepository;
+import com.mukando.userservice.sync.UserSyncPublisher;
 
 import lombok.RequiredArgsConstructor;
 
@@ -22,6 +24,8 @@ public class PasswordServiceImpl implements PasswordService {
     private final PasswordResetTokenRepository tokenRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final UserSyncPublisher userSyncPublisher;
+    private final UserCache userCache;
 
     @Override
     @Transactional
@@ -52,8 +56,10 @@ public class PasswordServiceImpl implements PasswordService {
         }
         
         User user = resetToken.getUser();
-        user.setPassword(passwordEncoder.encode(newPassword));
+        userCache.evict(user);
+        user.changePassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        userSyncPublisher.passwordChanged(user);
         
         // Cleanup token
         tokenRepository.delete(resetToken);
@@ -0,0 +1,7 @@
+package com.mukando.userservice.service;
+
+import com.mukando.userservice.dto.ReconciliationReport;
+
+public interface ReconciliationService {
+    ReconciliationReport reconcile();
+}
@@ -0,0 +1,223 @@
+package com.mukando.userservice.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mukando.commons.datasource.ReadYourWrites;
+import com.mukando.commons.exception.JobAlreadyRunningException;
+import com.mukando.commons.security.Role;
+import com.mukando.commons.sync.RangeDigest;
+import com.mukando.commons.sync.UserDigest;
+import com.mukando.commons.sync.UserSnapshot;
+import com.mukando.userservice.dto.ReconciliationReport;
+import com.mukando.userservice.feign.AuthServiceClient;
+import com.mukando.userservice.repository.JobLockRepository;
+import com.mukando.userservice.repository.UserRepository;
+import com.mukando.userservice.sync.UserSyncPublisher;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Diffs this service's users against auth-service without loading either table.
+ * Usernames are walked in keyset-ordered chunks; for each chunk only a digest is
+ * requested from auth-service. A mismatching range is split in half on local
+ * key boundaries until it is small enough to fetch and compare row by row, so
+ * the work is proportional to the drift. user-service is the source of truth:
+ * users missing or different in auth-service are re-sent through the outbox,
+ * users that exist only in auth-service are reported. A run holds a lease in
+ * job_locks, extended after every chunk, so only one instance reconciles at a time.
+ * Local rows are read from the primary, as repairs re-send what was read and a
+ * lagging replica would have them undo newer changes.
+ */
+@Slf4j
+@Service
+public class ReconciliationServiceImpl implements ReconciliationService {
+
+    private static final String LOCK_NAME = "user-reconciliation";
+
+    private final UserRepository userRepository;
+    private final AuthServiceClient authServiceClient;
+    private final UserSyncPublisher userSyncPublisher;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int chunkSize;
+    private final int leafSize;
+    private final boolean repair;
+    private final JobLockRepository jobLockRepository;
+    private final Duration lockLease;
+    private final String lockOwner = UUID.randomUUID().toString();
+
+    private final Counter missingCounter;
+    private final Counter mismatchCounter;
+    private final Counter orphanCounter;
+
+    public ReconciliationServiceImpl(
+            UserRepository userRepository,
+            AuthServiceClient authServiceClient,
+            UserSyncPublisher userSyncPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${reconciliation.chunk-size:1000}") int chunkSize,
+            @Value("${reconciliation.leaf-size:50}") int leafSize,
+            @Value("${reconciliation.repair:true}") boolean repair,
+            JobLockRepository jobLockRepository,
+            @Value("${reconciliation.lock-lease:10m}") Duration lockLease,
+            MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.authServiceClient = authServiceClient;
+        this.userSyncPublisher = userSyncPublisher;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.chunkSize = chunkSize;
+        this.leafSize = leafSize;
+        this.repair = repair;
+        this.jobLockRepository = jobLockRepository;
+        this.lockLease = lockLease;
+        this.missingCounter = Counter.builder("reconciliation.drift").tag("kind", "missing").register(meterRegistry);
+        this.mismatchCounter = Counter.builder("reconciliation.drift").tag("kind", "mismatch").register(meterRegistry);
+        this.orphanCounter = Counter.builder("reconciliation.drift").tag("kind", "orphan").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${reconciliation.cron:0 30 3 * * *}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (JobAlreadyRunningException e) {
+            // Every instance fires the schedule; the ones that lose the lease skip this run
+            log.info("Skipping scheduled reconciliation: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public ReconciliationReport reconcile() {
+        LocalDateTime now = LocalDateTime.now();
+        if (jobLockRepository.acquire(LOCK_NAME, lockOwner, now, now.plus(lockLease)) == 0) {
+            throw new JobAlreadyRunningException("Reconciliation is already running");
+        }
+        try {
+            return ReadYourWrites.primary(this::walkUsers);
+        } finally {
+            jobLockRepository.release(LOCK_NAME, lockOwner);
+        }
+    }
+
+    private ReconciliationReport walkUsers() {
+        Run run = new Run();
+        String after = "";
+        while (true) {
+            String from = after;
+            List<String> usernames = readOnlyTransaction.execute(status ->
+                userRepository.findUsernamesAfter(from, PageRequest.of(0, chunkSize)));
+            boolean lastChunk = usernames.size() < chunkSize;
+            // The final range is open-ended so users only auth-service has beyond our last key are seen too
+            String upTo = lastChunk ? null : usernames.get(usernames.size() - 1);
+            compareRange(run, from, upTo, localSnapshots(from, upTo));
+            run.usersScanned += usernames.size();
+            if (lastChunk) {
+                break;
+            }
+            if (jobLockRepository.extend(LOCK_NAME, lockOwner, LocalDateTime.now().plus(lockLease)) == 0) {
+                throw new JobAlreadyRunningException("Reconciliation lease was lost after " + upTo);
+            }
+            after = upTo;
+        }
+        ReconciliationReport report = run.toReport();
+        log.info("User reconciliation finished: {}", report);
+        return report;
+    }
+
+    private void compareRange(Run run, String after, String upTo, List<UserSnapshot> local) {
+        run.rangesCompared++;
+        RangeDigest remote = authServiceClient.rangeDigest(after, upTo);
+        if (UserDigest.of(local).equals(remote)) {
+            return;
+        }
+        if (local.size() > leafSize) {
+            int half = local.size() / 2;
+            String middle = local.get(half - 1).username();
+            compareRange(run, after, middle, local.subList(0, half));
+            compareRange(run, middle, upTo, local.subList(half, local.size()));
+            return;
+        }
+        if (local.isEmpty() || remote.count() > chunkSize) {
+            // Cannot split further on our keys; report instead of pulling an unbounded row list
+            long extra = Math.max(0, remote.count() - local.size());
+            run.orphanedInAuth += extra;
+            orphanCounter.increment(extra);
+            log.warn("auth-service has {} users in ({}, {}] against {} here", remote.count(), after, upTo, local.size());
+            return;
+        }
+        run.rangesDiffed++;
+        diffRows(run, local, authServiceClient.rangeRows(after, upTo));
+    }
+
+    private void diffRows(Run run, List<UserSnapshot> local, List<UserSnapshot> remote) {
+        Map<String, UserSnapshot> remoteByUsername = remote.stream()
+            .collect(Collectors.toMap(UserSnapshot::username, Function.identity()));
+        for (UserSnapshot snapshot : local) {
+            UserSnapshot remoteSnapshot = remoteByUsername.remove(snapshot.username());
+            if (remoteSnapshot == null) {
+                run.missingInAuth++;
+                missingCounter.increment();
+                log.warn("User {} is missing in auth-service", snapshot.username());
+                if (repair) {
+                    userRepository.findByUsername(snapshot.username()).ifPresent(userSyncPublisher::userRegistered);
+                }
+            } else if (!snapshot.equals(remoteSnapshot)) {
+                run.mismatched++;
+                mismatchCounter.increment();
+                log.warn("User {} differs in auth-service", snapshot.username());
+                if (repair) {
+                    repairMismatch(snapshot, remoteSnapshot);
+                }
+            }
+        }
+        for (String username : remoteByUsername.keySet()) {
+            run.orphanedInAuth++;
+            orphanCounter.increment();
+            log.warn("User {} exists only in auth-service", username);
+        }
+    }
+
+    // A user.updated event never carries the password, so a stale one is re-sent as its own event
+    private void repairMismatch(UserSnapshot local, UserSnapshot remote) {
+        if (local.passwordVersion() != remote.passwordVersion()) {
+            userRepository.findByUsername(local.username()).ifPresent(userSyncPublisher::passwordChanged);
+        }
+        if (!local.withPasswordVersion(remote.passwordVersion()).equals(remote)) {
+            userSyncPublisher.userUpdated(local);
+        }
+    }
+
+    private List<UserSnapshot> localSnapshots(String after, String upTo) {
+        return readOnlyTransaction.execute(status ->
+            UserSnapshot.fromRows(userRepository.findSnapshotRows(after, upTo), Role.MASK));
+    }
+
+    private final class Run {
+        private long usersScanned;
+        private long rangesCompared;
+        private long rangesDiffed;
+        private long missingInAuth;
+        private long mismatched;
+        private long orphanedInAuth;
+
+        ReconciliationReport toReport() {
+            return new ReconciliationReport(usersScanned, rangesCompared, rangesDiffed,
+                missingInAuth, mismatched, orphanedInAuth, repair);
+        }
+    }
+}
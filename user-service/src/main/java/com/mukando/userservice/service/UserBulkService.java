@@ -0,0 +1,10 @@
+package com.mukando.userservice.service;
+
+import com.mukando.userservice.dto.BulkRoleUpdate;
+import com.mukando.userservice.dto.BulkStatusUpdate;
+import com.mukando.userservice.dto.BulkUpdateResult;
+
+public interface UserBulkService {
+    BulkUpdateResult updateStatus(BulkStatusUpdate request);
+    BulkUpdateResult updateRoles(BulkRoleUpdate request);
+}
@@ -0,0 +1,224 @@
+package com.mukando.userservice.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mukando.commons.datasource.ReadYourWrites;
+import com.mukando.commons.exception.BadRequestException;
+import com.mukando.commons.security.Role;
+import com.mukando.commons.sync.UserSnapshot;
+import com.mukando.userservice.cache.UserCache;
+import com.mukando.userservice.dto.BulkRoleUpdate;
+import com.mukando.userservice.dto.BulkStatusUpdate;
+import com.mukando.userservice.dto.BulkUpdateResult;
+import com.mukando.userservice.dto.UserFilter;
+import com.mukando.userservice.dto.UserInvalidation;
+import com.mukando.userservice.model.User;
+import com.mukando.userservice.repository.UserRepository;
+import com.mukando.userservice.search.UserSearchIndex;
+import com.mukando.userservice.sync.UserSyncPublisher;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies role and status changes to many users with set-based UPDATEs instead of
+ * loading and saving each entity. Users are walked in id order in batches; each
+ * batch runs in its own transaction that locks the batch's rows, reads only their
+ * id, enabled flag and roles mask, and updates the users whose value actually
+ * changes with one statement per resulting value. Because entity listeners do not
+ * see these statements, each batch also queues an outbox event per changed user,
+ * evicts its users from the cache together and queues them for re-indexing.
+ */
+@Slf4j
+@Service
+public class UserBulkServiceImpl implements UserBulkService {
+
+    private static final int MAX_IDS = 10_000;
+
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final UserCache userCache;
+    private final UserSyncPublisher userSyncPublisher;
+    private final UserSearchIndex userSearchIndex;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+
+    public UserBulkServiceImpl(
+            UserRepository userRepository,
+            EntityManager entityManager,
+            UserCache userCache,
+            UserSyncPublisher userSyncPublisher,
+            UserSearchIndex userSearchIndex,
+            PlatformTransactionManager transactionManager,
+            @Value("${users.bulk.batch-size:500}") int batchSize
+    ) {
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.userCache = userCache;
+        this.userSyncPublisher = userSyncPublisher;
+        this.userSearchIndex = userSearchIndex;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public BulkUpdateResult updateStatus(BulkStatusUpdate request) {
+        boolean enabled = request.enabled();
+        return run(request.ids(), request.filter(), (rows, now) -> {
+            List<Long> changed = new ArrayList<>();
+            for (Object[] row : rows) {
+                if ((Boolean) row[1] != enabled) {
+                    changed.add((Long) row[0]);
+                }
+            }
+            if (!changed.isEmpty()) {
+                userRepository.updateEnabled(changed, enabled, now);
+            }
+            return changed;
+        });
+    }
+
+    @Override
+    public BulkUpdateResult updateRoles(BulkRoleUpdate request) {
+        int bits = 0;
+        for (String role : request.roles()) {
+            int bit = Role.MASK.bit(role.toUpperCase(Locale.ROOT));
+            if (bit == 0) {
+                throw new BadRequestException("Unknown role: " + role);
+            }
+            bits |= bit;
+        }
+        if (bits == 0 && request.change() != BulkRoleUpdate.Change.SET) {
+            throw new BadRequestException("No roles to " + request.change().name().toLowerCase(Locale.ROOT));
+        }
+        int roleBits = bits;
+        IntUnaryOperator next = switch (request.change()) {
+            case SET -> mask -> roleBits;
+            case ADD -> mask -> mask | roleBits;
+            case REMOVE -> mask -> mask & ~roleBits;
+        };
+        return run(request.ids(), request.filter(), (rows, now) -> {
+            // Users ending up with the same roles share one UPDATE
+            Map<Integer, List<Long>> idsByMask = new LinkedHashMap<>();
+            for (Object[] row : rows) {
+                int mask = (Integer) row[2];
+                int updated = next.applyAsInt(mask);
+                if (updated != mask) {
+                    idsByMask.computeIfAbsent(updated, key -> new ArrayList<>()).add((Long) row[0]);
+                }
+            }
+            idsByMask.forEach((mask, ids) -> userRepository.updateRolesMask(ids, mask, now));
+            return idsByMask.values().stream().flatMap(List::stream).toList();
+        });
+    }
+
+    private BulkUpdateResult run(List<Long> ids, UserFilter filter, BatchUpdate update) {
+        boolean byIds = ids != null && !ids.isEmpty();
+        boolean byFilter = filter != null && !filter.isEmpty();
+        if (byIds == byFilter) {
+            throw new BadRequestException("Give either ids or a non-empty filter");
+        }
+        if (byIds && ids.size() > MAX_IDS) {
+            throw new BadRequestException("At most " + MAX_IDS + " ids per request; use a filter for more");
+        }
+        Specification<User> specification = byFilter ? filter.toSpecification() : null;
+
+        Progress progress = new Progress();
+        try {
+            if (byIds) {
+                List<Long> sorted = ids.stream().distinct().sorted().toList();
+                for (int from = 0; from < sorted.size(); from += batchSize) {
+                    List<Long> batch = sorted.subList(from, Math.min(from + batchSize, sorted.size()));
+                    runBatch((root, query, cb) -> root.get("id").in(batch), 0L, update, progress);
+                }
+            } else {
+                long afterId = 0L;
+                Batch batch;
+                do {
+                    batch = runBatch(specification, afterId, update, progress);
+                    afterId = batch.lastId();
+                } while (batch.matched() == batchSize);
+            }
+        } catch (RuntimeException e) {
+            log.error("Bulk update stopped after {} batches ({} users updated)", progress.batches, progress.updated, e);
+            return progress.result(false, "Bulk update stopped after " + progress.updated
+                + " users were updated; repeat the request to apply the rest");
+        }
+        return progress.result(true, null);
+    }
+
+    private Batch runBatch(Specification<User> specification, long afterId, BatchUpdate update, Progress progress) {
+        // Pinned so the snapshot sent to auth-service never comes from a read-only transaction on the replica
+        Batch batch = ReadYourWrites.primary(() -> transaction.execute(status -> {
+            List<Object[]> rows = lockRows(specification, afterId);
+            List<Long> changed = rows.isEmpty() ? List.of() : update.apply(rows, LocalDateTime.now());
+            if (!changed.isEmpty()) {
+                List<Object[]> snapshotRows = userRepository.findSnapshotRowsByIdIn(changed);
+                userSyncPublisher.usersUpdated(UserSnapshot.fromRows(snapshotRows, Role.MASK));
+                userCache.evictAll(snapshotRows.stream()
+                    .map(row -> new UserInvalidation((Long) row[11], (Integer) row[12]))
+                    .toList());
+            }
+            long lastId = rows.isEmpty() ? afterId : (Long) rows.get(rows.size() - 1)[0];
+            return new Batch(rows.size(), lastId, changed);
+        }));
+        userSearchIndex.enqueue(batch.changed());
+        progress.add(batch);
+        return batch;
+    }
+
+    // id, enabled, rolesMask of the next batch in id order, locked until the batch commits
+    private List<Object[]> lockRows(Specification<User> specification, long afterId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<User> root = query.from(User.class);
+        query.multiselect(root.get("id"), root.get("enabled"), root.get("rolesMask"))
+            .where(specification.toPredicate(root, query, cb), cb.greaterThan(root.get("id"), afterId))
+            .orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query)
+            .setMaxResults(batchSize)
+            .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+            .getResultList();
+    }
+
+    @FunctionalInterface
+    private interface BatchUpdate {
+        /** Updates the users among {@code rows} that change and returns their ids. */
+        List<Long> apply(List<Object[]> rows, LocalDateTime now);
+    }
+
+    private record Batch(int matched, long lastId, List<Long> changed) {
+    }
+
+    private static final class Progress {
+        private long matched;
+        private long updated;
+        private int batches;
+
+        void add(Batch batch) {
+            matched += batch.matched();
+            updated += batch.changed().size();
+            batches++;
+        }
+
+        BulkUpdateResult result(boolean complete, String error) {
+            return new BulkUpdateResult(matched, updated, batches, complete, error);
+        }
+    }
+}
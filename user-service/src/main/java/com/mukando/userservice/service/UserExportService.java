@@ -0,0 +1,10 @@
+package com.mukando.userservice.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.mukando.userservice.dto.UserExportFormat;
+
+public interface UserExportService {
+    long export(UserExportFormat format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,236 @@
+package com.mukando.userservice.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collection;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mukando.commons.security.Role;
+import com.mukando.userservice.dto.UserExportFormat;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams every user straight from a forward-only, read-only JDBC cursor to the
+ * response, over the export pool's connections. Nothing goes through the
+ * persistence context and only the current row is held in memory. Writes block
+ * when the client reads slowly, which in turn stops the cursor from fetching
+ * further, so a slow consumer never builds up a backlog.
+ */
+@Slf4j
+@Service
+public class UserExportServiceImpl implements UserExportService {
+
+    private static final String EXPORT_SQL =
+        "select u.id, u.username, u.email, u.phone_number, u.first_name, u.last_name, u.city, u.country, "
+        + "u.enabled, u.account_non_locked, u.created_date, u.roles_mask "
+        + "from mukando_users u order by u.id";
+
+    private static final String[] CSV_HEADER = {
+        "id", "username", "email", "phoneNumber", "firstName", "lastName", "city", "country",
+        "enabled", "accountNonLocked", "createdDate", "roles"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final int bufferSize;
+    private final Counter exportedRows;
+
+    public UserExportServiceImpl(
+            @Qualifier("exportDataSource") DataSource exportDataSource,
+            ObjectMapper objectMapper,
+            @Value("${users.export.fetch-size:1000}") int fetchSize,
+            @Value("${users.export.buffer-size:65536}") int bufferSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(exportDataSource);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.bufferSize = bufferSize;
+        this.exportedRows = Counter.builder("users.export.rows").register(meterRegistry);
+    }
+
+    @Override
+    public long export(UserExportFormat format, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        OutputStream buffered = new BufferedOutputStream(out, bufferSize);
+        RowSink sink = format == UserExportFormat.CSV ? new CsvSink(buffered) : new NdjsonSink(buffered);
+        long[] count = new long[1];
+        try {
+            sink.begin();
+            jdbcTemplate.query(this::prepareCursor, rs -> {
+                write(sink, ExportRow.from(rs));
+                count[0]++;
+            });
+            sink.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        buffered.flush();
+        exportedRows.increment(count[0]);
+        log.info("Exported {} users as {} in {} ms", count[0], format,
+            (System.nanoTime() - started) / 1_000_000);
+        return count[0];
+    }
+
+    private PreparedStatement prepareCursor(Connection connection) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(
+            EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        // Honoured as a server-side cursor by MySQL because the export pool sets useCursorFetch=true
+        statement.setFetchSize(fetchSize);
+        return statement;
+    }
+
+    private static void write(RowSink sink, ExportRow row) {
+        try {
+            sink.write(row);
+        } catch (IOException e) {
+            // Usually the client went away; unwrap outside the JDBC callback so the cursor is closed first
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class ExportRow {
+        private long id;
+        private String[] fields;
+        private boolean enabled;
+        private boolean accountNonLocked;
+        private String createdDate;
+        private Collection<String> roles;
+
+        static ExportRow from(ResultSet rs) throws SQLException {
+            ExportRow row = new ExportRow();
+            row.id = rs.getLong(1);
+            row.fields = new String[] {
+                rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5),
+                rs.getString(6), rs.getString(7), rs.getString(8)
+            };
+            row.enabled = rs.getBoolean(9);
+            row.accountNonLocked = rs.getBoolean(10);
+            Timestamp created = rs.getTimestamp(11);
+            row.createdDate = created == null ? null : created.toLocalDateTime().toString();
+            row.roles = Role.MASK.names(rs.getInt(12));
+            return row;
+        }
+    }
+
+    private interface RowSink {
+        void begin() throws IOException;
+        void write(ExportRow row) throws IOException;
+        void finish() throws IOException;
+    }
+
+    private final class NdjsonSink implements RowSink {
+        private final JsonGenerator generator;
+
+        NdjsonSink(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void begin() {
+            // NDJSON has no envelope
+        }
+
+        @Override
+        public void write(ExportRow row) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField(CSV_HEADER[0], row.id);
+            for (int i = 0; i < row.fields.length; i++) {
+                generator.writeStringField(CSV_HEADER[i + 1], row.fields[i]);
+            }
+            generator.writeBooleanField(CSV_HEADER[8], row.enabled);
+            generator.writeBooleanField(CSV_HEADER[9], row.accountNonLocked);
+            generator.writeStringField(CSV_HEADER[10], row.createdDate);
+            generator.writeArrayFieldStart(CSV_HEADER[11]);
+            for (String role : row.roles) {
+                generator.writeString(role);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static final class CsvSink implements RowSink {
+        private final Writer writer;
+
+        CsvSink(OutputStream out) {
+            this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void begin() throws IOException {
+            writer.write(String.join(",", CSV_HEADER));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ExportRow row) throws IOException {
+            writer.write(Long.toString(row.id));
+            for (String field : row.fields) {
+                writer.write(',');
+                writeField(field);
+            }
+            writer.write(',');
+            writer.write(Boolean.toString(row.enabled));
+            writer.write(',');
+            writer.write(Boolean.toString(row.accountNonLocked));
+            writer.write(',');
+            writeField(row.createdDate);
+            writer.write(',');
+            writeField(String.join(";", row.roles));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            // Spreadsheets run cells starting with these as formulas; a leading quote keeps them text
+            if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+                value = "'" + value;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+}
@@ -1,10 +1,18 @@
 package com.mukando.userservice.service;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import com.mukando.commons.users.UserBatchRequest;
+import com.mukando.commons.users.UserBatchResponse;
+import com.mukando.userservice.dto.CursorPage;
+import com.mukando.userservice.dto.UserAuthorization;
+import com.mukando.userservice.dto.UserCursor;
 import com.mukando.userservice.model.User;
 
 public interface UserService {
@@ -12,7 +20,10 @@ public interface UserService {
     User updateUser(Long id, User user);
     void deleteUser(Long id);
     User getUserById(Long id);
+    UserBatchResponse getUsers(UserBatchRequest request);
     Page<User> getAllUsers(Pageable pageable);
+    Page<User> searchUsers(String query, Pageable pageable);
+    CursorPage<User> getUsersAfter(UserCursor.Order order, String cursor, int size);
     User assignRoles(Long userId, Set<String> roles);
     User updateUserStatus(Long userId, boolean enabled);
     void changePassword(Long userId, String currentPassword, String newPassword);
@@ -23,5 +34,8 @@ public interface UserService {
     Set<String> getUserRoles(Long userId);
     boolean isUserEnabled(Long userId);
     boolean isUserAdmin(Long userId);
+    UserAuthorization getAuthorization(Long userId);
+    List<UserAuthorization> getAuthorizations(Collection<Long> userIds);
+    Map<Long, Integer> getVersions(Collection<Long> userIds);
     User internalCreateUser(User user);
 }
\ No newline at end of file
@@ -1,23 +1,42 @@
 package com.mukando.userservice.service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.mukando.commons.exception.BadRequestException;
 import com.mukando.commons.exception.EmailAlreadyExistException;
 import com.mukando.commons.exception.InvalidCredentialsException;
 import com.mukando.commons.exception.ResourceNotFoundException;
-import com.mukando.commons.exception.UsernameAlreadyExistException;
-import com.mukando.userservice.dto.AuthRegistrationRequest;
-import com.mukando.userservice.feign.AuthServiceClient;
-import com.mukando.userservice.model.Role;
+import com.mukando.commons.jpa.Collation;
+import com.mukando.commons.security.Role;
+import com.mukando.commons.users.UserBatchRequest;
+import com.mukando.commons.users.UserBatchResponse;
+import com.mukando.commons.users.UserClient;
+import com.mukando.commons.users.UserSummary;
+import com.mukando.userservice.cache.UserCache;
+import com.mukando.userservice.dto.CursorPage;
+import com.mukando.userservice.dto.UserAuthorization;
+import com.mukando.userservice.dto.UserCursor;
 import com.mukando.userservice.model.User;
 import com.mukando.userservice.repository.UserRepository;
+import com.mukando.userservice.search.UserSearchIndex;
+import com.mukando.userservice.sync.UserSyncPublisher;
 
 import lombok.RequiredArgsConstructor;
 
@@ -26,17 +45,23 @@ import lombok.RequiredArgsConstructor;
 public class UserServiceImpl implements UserService {
 
     private static final String USER_NOT_FOUND = "User not found with ID: ";
+    private static final int MAX_AUTHORIZATION_BATCH = 500;
+    private static final int MAX_CURSOR_PAGE_SIZE = 500;
+    private static final int MAX_SEARCH_WINDOW = 1000;
+    private static final int MAX_SEARCH_QUERY_LENGTH = 200;
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final AuthServiceClient authServiceClient;
+    private final UserSyncPublisher userSyncPublisher;
+    private final UserCache userCache;
+    private final UserSearchIndex userSearchIndex;
 
     @Override
     @Transactional
     public User createUser(User user) {
-        validateUserDoesNotExist(user);
         encodeUserPassword(user);
-        User createdUser = userRepository.save(user);
+        // A taken username/email/phone fails the unique constraints here, before anything else is written
+        User createdUser = userRepository.saveAndFlush(user);
         syncUserToAuthService(createdUser);
         return createdUser;
     }
@@ -44,7 +69,7 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public void changePassword(Long userId, String currentPassword, String newPassword) {
-        User user = getUserById(userId);
+        User user = loadUserForUpdate(userId);
         verifyCurrentPassword(user, currentPassword);
         updatePasswordAndSync(user, newPassword);
     }
@@ -52,106 +77,240 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public User updateUser(Long id, User updatedUser) {
-        User existingUser = getUserById(id);
+        User existingUser = loadUserForUpdate(id);
         updateEmailIfChanged(existingUser, updatedUser);
         updateUserDetails(existingUser, updatedUser);
-        return userRepository.save(existingUser);
+        User savedUser = userRepository.save(existingUser);
+        userSyncPublisher.userUpdated(savedUser);
+        return savedUser;
     }
 
     @Override
     @Transactional
     public void deleteUser(Long id) {
-        User user = getUserById(id);
+        User user = userRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException(USER_NOT_FOUND + id));
+        userCache.evictDeleted(user);
         userRepository.delete(user);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public User getUserById(Long id) {
-        return userRepository.findById(id)
+        return userCache.getById(id, userRepository::findById)
             .orElseThrow(() -> new ResourceNotFoundException(USER_NOT_FOUND + id));
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public UserBatchResponse getUsers(UserBatchRequest request) {
+        if (request.size() > UserClient.MAX_BATCH_SIZE) {
+            throw new BadRequestException("At most " + UserClient.MAX_BATCH_SIZE + " ids and usernames per request");
+        }
+        // Cache hits are served as they are; each kind of key costs at most one IN query for the rest
+        Map<Long, User> byId = request.ids().isEmpty() ? Map.of()
+            : userCache.getAllById(request.ids(), userRepository::findAllByIdIn);
+        Map<String, User> byUsername = request.usernames().isEmpty() ? Map.of()
+            : userCache.getAllByUsername(request.usernames(), userRepository::findAllByUsernameIn);
+
+        Map<Long, UserSummary> users = new LinkedHashMap<>();
+        Set<Long> missingIds = new LinkedHashSet<>();
+        // Keyed like the database compares usernames, so "Alice" and "alice" are one missing name
+        Map<String, String> missingUsernames = new LinkedHashMap<>();
+        for (Long id : request.ids()) {
+            User user = byId.get(id);
+            if (user == null) {
+                missingIds.add(id);
+            } else {
+                users.putIfAbsent(user.getId(), toSummary(user));
+            }
+        }
+        for (String username : request.usernames()) {
+            User user = byUsername.get(Collation.key(username));
+            if (user == null) {
+                missingUsernames.putIfAbsent(Collation.key(username), username);
+            } else {
+                users.putIfAbsent(user.getId(), toSummary(user));
+            }
+        }
+        return new UserBatchResponse(List.copyOf(users.values()), List.copyOf(missingIds),
+            List.copyOf(missingUsernames.values()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Page<User> getAllUsers(Pageable pageable) {
         return userRepository.findAll(pageable);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<User> getUsersAfter(UserCursor.Order order, String cursor, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+        UserCursor after = cursor == null ? null : UserCursor.decode(cursor);
+        if (after != null && after.order() != order) {
+            throw new BadRequestException("Cursor was issued for a different sort order");
+        }
+        // One extra row tells us whether another page exists without a count query
+        Pageable window = PageRequest.of(0, limit + 1);
+        List<Long> ids;
+        if (order == UserCursor.Order.ID) {
+            ids = userRepository.findIdsAfter(after == null ? 0L : after.id(), window);
+        } else if (after == null) {
+            ids = userRepository.findIdsByCreatedDate(window);
+        } else {
+            ids = userRepository.findIdsByCreatedDateAfter(after.createdDate(), after.id(), window);
+        }
+        boolean hasMore = ids.size() > limit;
+        List<Long> pageIds = hasMore ? ids.subList(0, limit) : ids;
+
+        List<User> users = loadInOrder(pageIds);
+        if (!hasMore || users.isEmpty()) {
+            return new CursorPage<>(users, null);
+        }
+        User last = users.get(users.size() - 1);
+        return new CursorPage<>(users, new UserCursor(order, last.getCreatedDate(), last.getId()).encode());
+    }
+
     @Override
     @Transactional
     public User assignRoles(Long userId, Set<String> roles) {
-        User user = getUserById(userId);
+        User user = loadUserForUpdate(userId);
         user.setRoles(convertToRoleSet(roles));
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userSyncPublisher.userUpdated(savedUser);
+        return savedUser;
     }
 
     @Override
     @Transactional
     public User updateUserStatus(Long userId, boolean enabled) {
-        User user = getUserById(userId);
+        User user = loadUserForUpdate(userId);
         user.setEnabled(enabled);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userSyncPublisher.userUpdated(savedUser);
+        return savedUser;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public User findByUsername(String username) {
-        return userRepository.findByUsername(username)
+        return userCache.getByUsername(username, () -> userRepository.findByUsername(username))
             .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public User findByEmail(String email) {
-        return userRepository.findByEmail(email)
+        return userCache.getByEmail(email, () -> userRepository.findByEmail(email))
             .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public boolean existsByUsername(String username) {
         return userRepository.existsByUsername(username);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Set<String> getUserRoles(Long userId) {
-        return getUserById(userId).getRoles().stream()
-            .map(Role::name)
-            .collect(Collectors.toSet());
+        return Role.MASK.names(getUserById(userId).getRolesMask());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public boolean isUserEnabled(Long userId) {
         return getUserById(userId).isEnabled();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public boolean isUserAdmin(Long userId) {
         Set<Role> roles = getUserById(userId).getRoles();
         return roles.contains(Role.ADMIN) || roles.contains(Role.SUPERADMIN);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<User> searchUsers(String query, Pageable pageable) {
+        if (query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new BadRequestException("Search query must be at most " + MAX_SEARCH_QUERY_LENGTH + " characters");
+        }
+        if (pageable.getOffset() + pageable.getPageSize() > MAX_SEARCH_WINDOW) {
+            throw new BadRequestException("Search results are limited to the first " + MAX_SEARCH_WINDOW + " hits");
+        }
+        UserSearchIndex.Hits hits;
+        try {
+            hits = userSearchIndex.search(query, (int) pageable.getOffset(), pageable.getPageSize());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new PageImpl<>(loadInOrder(hits.ids()), pageable, hits.totalHits());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserAuthorization getAuthorization(Long userId) {
+        List<UserAuthorization> authorizations = getAuthorizations(List.of(userId));
+        if (authorizations.isEmpty()) {
+            throw new ResourceNotFoundException(USER_NOT_FOUND + userId);
+        }
+        return authorizations.get(0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserAuthorization> getAuthorizations(Collection<Long> userIds) {
+        if (userIds.size() > MAX_AUTHORIZATION_BATCH) {
+            throw new BadRequestException("At most " + MAX_AUTHORIZATION_BATCH + " user ids per request");
+        }
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        int adminBits = Role.MASK.bit(Role.ADMIN) | Role.MASK.bit(Role.SUPERADMIN);
+        return userRepository.findAuthorizationRows(userIds).stream()
+            .map(row -> {
+                int mask = (Integer) row[4];
+                return new UserAuthorization((Long) row[0], Role.MASK.names(mask), (Boolean) row[1],
+                    !(Boolean) row[2], (mask & adminBits) != 0, (Integer) row[3]);
+            })
+            .toList();
+    }
+
+    @Override
+    public Map<Long, Integer> getVersions(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        return userRepository.findVersions(userIds).stream()
+            .collect(Collectors.toMap(row -> (Long) row[0], row -> (Integer) row[1]));
+    }
+
     @Override
     @Transactional
     public User internalCreateUser(User user) {
-        validateUserDoesNotExist(user);
-        return userRepository.save(user);
+        return userRepository.saveAndFlush(user);
     }
 
     // Helper methods
-    private void validateUserDoesNotExist(User user) {
-        if (existsByUsername(user.getUsername())) {
-            throw new UsernameAlreadyExistException(
-                "Username '" + user.getUsername() + "' already exists"
-            );
-        }
-        
-        if (existsByEmail(user.getEmail())) {
-            throw new EmailAlreadyExistException(
-                "Email '" + user.getEmail() + "' already registered"
-            );
-        }
+    private User loadUserForUpdate(Long id) {
+        User user = userRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException(USER_NOT_FOUND + id));
+        // Evict with the keys as they are now, before email or other fields change
+        userCache.evict(user);
+        return user;
+    }
+
+    private static UserSummary toSummary(User user) {
+        return new UserSummary(user.getId(), user.getUsername(), user.getEmail(), user.getFirstName(),
+            user.getLastName(), user.getPhoneNumber(), user.isEnabled(), Role.MASK.names(user.getRolesMask()));
     }
 
     private void encodeUserPassword(User user) {
@@ -165,10 +324,9 @@ public class UserServiceImpl implements UserService {
     }
 
     private void updatePasswordAndSync(User user, String newPassword) {
-        String encodedPassword = passwordEncoder.encode(newPassword);
-        user.setPassword(encodedPassword);
+        user.changePassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
-        authServiceClient.updatePassword(user.getUsername(), encodedPassword);
+        userSyncPublisher.passwordChanged(user);
     }
 
     private void updateEmailIfChanged(User existing, User updated) {
@@ -198,19 +356,15 @@ public class UserServiceImpl implements UserService {
     }
 
     private void syncUserToAuthService(User user) {
-        authServiceClient.registerUser(new AuthRegistrationRequest(
-            user.getUsername(),
-            user.getPassword(), // Already encoded
-            user.getEmail(),
-            user.getFirstName(),
-            user.getLastName(),
-            user.getPhoneNumber(),
-            user.getAddress(),
-            user.getCity(),
-            user.getCountry(),
-            user.getRoles().stream()
-                .map(Role::name)
-                .collect(Collectors.toSet())
-        ));
-    }
-}
\ No newline at end of file
+        userSyncPublisher.userRegistered(user);
+    }
+
+    private List<User> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, User> byId = userRepository.findAllByIdIn(ids).stream()
+            .collect(Collectors.toMap(User::getId, user -> user));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+}
@@ -0,0 +1,51 @@
+package com.mukando.userservice.sync;
+
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mukando.commons.outbox.InboxHandler;
+import com.mukando.commons.security.Role;
+import com.mukando.commons.sync.UserRegisteredEvent;
+import com.mukando.userservice.model.User;
+import com.mukando.userservice.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class UserRegisteredHandler implements InboxHandler {
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String eventType() {
+        return UserRegisteredEvent.TYPE;
+    }
+
+    @Override
+    public void handle(JsonNode payload) {
+        UserRegisteredEvent event = objectMapper.convertValue(payload, UserRegisteredEvent.class);
+        if (userRepository.existsByUsername(event.username())) {
+            return;
+        }
+        userRepository.save(User.builder()
+            .username(event.username())
+            .password(event.passwordHash())
+            .passwordVersion(event.passwordVersion())
+            .email(event.email())
+            .firstName(event.firstName())
+            .lastName(event.lastName())
+            .phoneNumber(event.phoneNumber())
+            .address(event.address())
+            .city(event.city())
+            .country(event.country())
+            .roles(event.roles().stream()
+                .map(role -> Role.valueOf(role.toUpperCase()))
+                .collect(Collectors.toSet()))
+            .build());
+    }
+}
@@ -0,0 +1,91 @@
+package com.mukando.userservice.sync;
+
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mukando.commons.outbox.OutboxPublisher;
+import com.mukando.commons.security.Role;
+import com.mukando.commons.sync.PasswordChangedEvent;
+import com.mukando.commons.sync.UserRegisteredEvent;
+import com.mukando.commons.sync.UserSnapshot;
+import com.mukando.commons.sync.UserUpdatedEvent;
+import com.mukando.userservice.model.User;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Queues user changes for auth-service through the outbox, in the caller's transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserSyncPublisher {
+
+    private final OutboxPublisher outboxPublisher;
+
+    @Transactional
+    public void userRegistered(User user) {
+        outboxPublisher.publish(UserRegisteredEvent.TYPE, user.getUsername(), new UserRegisteredEvent(
+            user.getUsername(),
+            user.getPassword(), // Already encoded
+            user.getEmail(),
+            user.getFirstName(),
+            user.getLastName(),
+            user.getPhoneNumber(),
+            user.getAddress(),
+            user.getCity(),
+            user.getCountry(),
+            user.getRoles().stream()
+                .map(Role::name)
+                .collect(Collectors.toSet()),
+            user.getPasswordVersion()
+        ));
+    }
+
+    @Transactional
+    public void userUpdated(User user) {
+        userUpdated(toSnapshot(user));
+    }
+
+    @Transactional
+    public void userUpdated(UserSnapshot snapshot) {
+        outboxPublisher.publish(UserUpdatedEvent.TYPE, snapshot.username(), new UserUpdatedEvent(snapshot));
+    }
+
+    /**
+     * Users changed by a set-based update: one event per user, keyed by username
+     * like every other event for that user, so the relay keeps them in order with
+     * the user's earlier and later changes.
+     */
+    @Transactional
+    public void usersUpdated(List<UserSnapshot> snapshots) {
+        snapshots.forEach(this::userUpdated);
+    }
+
+    @Transactional
+    public void passwordChanged(User user) {
+        outboxPublisher.publish(PasswordChangedEvent.TYPE, user.getUsername(),
+            new PasswordChangedEvent(user.getUsername(), user.getPassword(), user.getPasswordVersion()));
+    }
+
+    private static UserSnapshot toSnapshot(User user) {
+        return new UserSnapshot(
+            user.getUsername(),
+            user.getEmail(),
+            user.getFirstName(),
+            user.getLastName(),
+            user.getPhoneNumber(),
+            user.getAddress(),
+            user.getCity(),
+            user.getCountry(),
+            user.isEnabled(),
+            user.getRoles().stream()
+                .map(Role::name)
+                .collect(Collectors.toCollection(TreeSet::new)),
+            user.getPasswordVersion()
+        );
+    }
+}
@@ -0,0 +1,69 @@
+-- The schema exactly as ddl-auto created it before migrations took over, including
+-- Hibernate's generated constraint names (engine=InnoDB left to the server default).
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate),
+-- so this only runs against an empty schema; every later change has its own version.
+
+create table mukando_users (
+    account_non_expired bit not null,
+    account_non_locked bit not null,
+    credentials_non_expired bit not null,
+    deleted bit not null,
+    enabled bit not null,
+    version integer,
+    created_date datetime(6),
+    id bigint not null auto_increment,
+    last_modified_date datetime(6),
+    address varchar(255),
+    city varchar(255),
+    country varchar(255),
+    created_by varchar(255),
+    email varchar(255) not null,
+    first_name varchar(255),
+    last_modified_by varchar(255),
+    last_name varchar(255),
+    password varchar(255) not null,
+    phone_number varchar(255),
+    username varchar(255) not null,
+    primary key (id)
+);
+
+create table password_reset_tokens (
+    deleted bit not null,
+    version integer,
+    created_date datetime(6),
+    expiry_date datetime(6),
+    id bigint not null auto_increment,
+    last_modified_date datetime(6),
+    user_id bigint not null,
+    created_by varchar(255),
+    last_modified_by varchar(255),
+    token varchar(255),
+    primary key (id)
+);
+
+create table user_roles (
+    user_id bigint not null,
+    roles enum ('ADMIN','GUEST','MEMBER','MODERATOR','PRESIDENT','SUPERADMIN','TREASURER','USER')
+);
+
+alter table mukando_users
+   add constraint UKn45ass0br8soj3vk9g205pna2 unique (email);
+
+alter table mukando_users
+   add constraint UK9w6391afg3oekal9dkv77chah unique (phone_number);
+
+alter table mukando_users
+   add constraint UKd2csmnrcoxt09qnjd6kx0n6p7 unique (username);
+
+alter table password_reset_tokens
+   add constraint UKla2ts67g4oh2sreayswhox1i6 unique (user_id);
+
+alter table password_reset_tokens
+   add constraint FK2kldmmuc5qkvd860utdqtwb6m
+   foreign key (user_id)
+   references mukando_users (id);
+
+alter table user_roles
+   add constraint FKo85nqcehbyqopc2wvd24rvdp7
+   foreign key (user_id)
+   references mukando_users (id);
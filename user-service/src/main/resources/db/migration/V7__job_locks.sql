@@ -0,0 +1,10 @@
+-- Leases for jobs that must run on one instance at a time, one row per job.
+
+create table job_locks (
+    name varchar(64) not null,
+    locked_by varchar(64),
+    locked_until datetime(6),
+    primary key (name)
+);
+
+insert into job_locks (name) values ('user-reconciliation');